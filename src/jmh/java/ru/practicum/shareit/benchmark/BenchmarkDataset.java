@@ -0,0 +1,168 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Boots the application against a private in-memory H2 database and fills it with a
+ * deterministic dataset whose size is driven by the number of bookings.
+ *
+ * <p>When {@code SHAREIT_POSTGRES_URL} is set (with {@code SHAREIT_POSTGRES_USER} and
+ * {@code SHAREIT_POSTGRES_PASSWORD}), the application runs against that PostgreSQL database instead, with the
+ * PostgreSQL search engine and partitioned bookings, in a schema of its own that is dropped on close.
+ */
+final class BenchmarkDataset {
+    static final int OWNERS = 100;
+    static final int BOOKERS = 1000;
+    static final long OWNER_ID = 1;
+    static final long BOOKER_ID = OWNERS + 1;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] NAMES = {
+        "Дрель", "Пила", "Отвертка", "Молоток", "Лестница", "Палатка", "Велосипед", "Проектор", "Камера", "Гитара"
+    };
+    private static final String[] ADJECTIVES = {
+        "аккумуляторная", "ручная", "большая", "складная", "профессиональная", "компактная", "старая", "новая"
+    };
+
+    private BenchmarkDataset() {
+    }
+
+    static ConfigurableApplicationContext start(int bookings) {
+        return start(bookings, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(int bookings, WebApplicationType webApplicationType,
+                                                String... properties) {
+        String postgresUrl = System.getenv("SHAREIT_POSTGRES_URL");
+        String schema = "bench_" + UUID.randomUUID().toString().replace("-", "");
+        List<String> args = new ArrayList<>(postgresUrl == null
+                ? List.of("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID())
+                : postgresArgs(postgresUrl, schema));
+        args.addAll(List.of(
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType);
+        if (postgresUrl == null) {
+            builder.profiles("test");
+        }
+        ConfigurableApplicationContext context = builder.run(args.toArray(String[]::new));
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        if (postgresUrl != null) {
+            context.addApplicationListener((ApplicationEvent event) -> {
+                if (event instanceof ContextClosedEvent) {
+                    jdbc.execute("DROP SCHEMA " + schema + " CASCADE");
+                }
+            });
+        }
+        seed(jdbc, bookings);
+
+        ItemSearchEngine searchEngine = context.getBean(ItemSearchEngine.class);
+        if (searchEngine instanceof InMemoryItemSearchEngine inMemory) {
+            inMemory.seed();
+        }
+        return context;
+    }
+
+    private static List<String> postgresArgs(String url, String schema) {
+        return List.of(
+                "--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                "--spring.datasource.username=" + System.getenv().getOrDefault("SHAREIT_POSTGRES_USER", "postgres"),
+                "--spring.datasource.password=" + System.getenv().getOrDefault("SHAREIT_POSTGRES_PASSWORD", ""),
+                "--spring.flyway.schemas=" + schema,
+                "--shareit.search.engine=postgres",
+                "--shareit.bookings.partitioned=true",
+                "--shareit.booking-events.poll-interval=P1D");
+    }
+
+    static int itemCount(int bookings) {
+        return Math.max(OWNERS, bookings / 50);
+    }
+
+    private static void seed(JdbcTemplate jdbc, int bookings) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        int items = itemCount(bookings);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= OWNERS + BOOKERS; id++) {
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@bench.ru"});
+        }
+        batch(jdbc, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+
+        for (long id = 1; id <= items; id++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            String description = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + name.toLowerCase() + " номер " + id;
+            rows.add(new Object[]{id, name, description, random.nextInt(10) > 0, 1 + (id - 1) % OWNERS});
+        }
+        batch(jdbc, "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)", rows);
+
+        String[] statuses = {"APPROVED", "APPROVED", "APPROVED", "WAITING", "REJECTED"};
+        for (long id = 1; id <= bookings; id++) {
+            LocalDateTime start = now.minusDays(365).plusMinutes(random.nextInt(730 * 24 * 60));
+            rows.add(new Object[]{id,
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                    1 + random.nextInt(items),
+                    OWNERS + 1 + random.nextInt(BOOKERS),
+                    statuses[random.nextInt(statuses.length)]});
+            flushIfFull(jdbc, "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        }
+        batch(jdbc, "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        for (long id = 1; id <= bookings / 20; id++) {
+            rows.add(new Object[]{id, "Комментарий " + id, 1 + random.nextInt(items),
+                    OWNERS + 1 + random.nextInt(BOOKERS), Timestamp.valueOf(now.minusMinutes(id))});
+            flushIfFull(jdbc, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                    rows);
+        }
+        batch(jdbc, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)", rows);
+        restartSequence(jdbc, "items_seq", items);
+        restartSequence(jdbc, "bookings_seq", bookings);
+        restartSequence(jdbc, "comments_seq", bookings / 20);
+        jdbc.execute("ANALYZE");
+    }
+
+    /**
+     * Moves a pooled sequence past explicitly inserted ids: Hibernate hands out the 50 ids ending at the next value.
+     */
+    private static void restartSequence(JdbcTemplate jdbc, String sequence, long maxId) {
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 50));
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (rows.size() >= BATCH_SIZE) {
+            batch(jdbc, sql, rows);
+        }
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
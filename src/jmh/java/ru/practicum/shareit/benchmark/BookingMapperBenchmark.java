@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure mapping cost of {@link BookingMapper#toDto} for a page of loaded entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@bench.ru").build();
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            Item item = Item.builder().id(id).name("Дрель " + id).description("Ударная дрель")
+                    .available(true).owner(owner).build();
+            User booker = User.builder().id(id + 1).name("booker" + id).email(id + "@bench.ru").build();
+            bookings.add(Booking.builder().id(id).start(now.plusHours(id)).end(now.plusHours(id + 1))
+                    .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        }
+    }
+
+    @Benchmark
+    public void toDtoPage(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toDto(booking));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of {@code GET /items/search} restricted to items free in a period. Sampled, so that the
+ * result carries the latency percentiles (p99 is {@code p0.99}) and not only the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemFreeSearchBenchmark {
+    @Param({"1000000"})
+    public int bookings;
+
+    @Param({"дрель", "аккум дрел"})
+    public String text;
+
+    @Param({"24", "168"})
+    public int hours;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start(bookings);
+        itemService = context.getBean(ItemService.class);
+        now = LocalDateTime.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<Item> searchFree() {
+        // a period starting within the next 30 days, where the dataset has bookings of every status
+        LocalDateTime start = now.plusHours(ThreadLocalRandom.current().nextInt(30 * 24));
+        return itemService.searchItems(text, start, start.plusHours(hours), null, 20);
+    }
+}
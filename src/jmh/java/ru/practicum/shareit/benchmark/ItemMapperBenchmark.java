@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item card assembly for one item and for an owner page, with a cold and a warm card cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMapperBenchmark {
+    @Param({"10000"})
+    public int bookings;
+
+    @Param({"true", "false"})
+    public boolean coldCache;
+
+    private ConfigurableApplicationContext context;
+    private ItemMapper itemMapper;
+    private ItemService itemService;
+    private ItemCardCache itemCardCache;
+    private List<Item> ownerItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start(bookings);
+        itemMapper = context.getBean(ItemMapper.class);
+        itemService = context.getBean(ItemService.class);
+        itemCardCache = context.getBean(ItemCardCache.class);
+        ownerItems = itemService.getAllItemsByOwner(BenchmarkDataset.OWNER_ID, null, 100).content();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCache() {
+        if (coldCache) {
+            itemCardCache.evictAll();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemResponseDto singleItem() {
+        return itemMapper.toResponseDto(ownerItems.get(0).getId(), itemService::getItem);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> ownerPage() {
+        return itemMapper.toResponseDtos(ownerItems);
+    }
+}
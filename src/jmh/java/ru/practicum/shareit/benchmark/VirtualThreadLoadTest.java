@@ -0,0 +1,150 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test comparing the platform-thread Tomcat pool with virtual threads.
+ * Each mode boots its own application on a random port with the same dataset; every client is a
+ * virtual thread that keeps exactly one request in flight against the booking and item read paths.
+ *
+ * <p>Arguments, all optional: {@code modes=platform,virtual clients=1000 bookings=100000
+ * warmup=10s duration=30s pool=20}.
+ */
+public final class VirtualThreadLoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String modes = option(args, "modes", "platform,virtual");
+        int clients = Integer.parseInt(option(args, "clients", "1000"));
+        int bookings = Integer.parseInt(option(args, "bookings", "100000"));
+        Duration warmup = Duration.parse("PT" + option(args, "warmup", "10s"));
+        Duration duration = Duration.parse("PT" + option(args, "duration", "30s"));
+        String pool = option(args, "pool", "20");
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes.split(",")) {
+            try (ConfigurableApplicationContext context = BenchmarkDataset.start(bookings, WebApplicationType.SERVLET,
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                    "spring.datasource.hikari.maximum-pool-size=" + pool,
+                    "shareit.sql.query-budget=1000",
+                    // 429s from the listing buckets would be counted as errors of the thread model under test
+                    "shareit.rate-limit.enabled=false")) {
+                URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                int items = BenchmarkDataset.itemCount(bookings);
+
+                run(base, items, clients, warmup);
+                Result result = run(base, items, clients, duration);
+                double pinned = context.getBean(MeterRegistry.class).find("shareit.virtual-threads.pinned")
+                        .counters().stream().mapToDouble(counter -> counter.count()).sum();
+                report.add(result.format(mode, clients, duration) + String.format(Locale.ROOT, " pinned=%.0f", pinned));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(URI base, int items, int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(httpExecutor)
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int index = client;
+                executor.submit(() -> latencies[index] = drive(http, base, items, deadline, errors));
+            }
+        }
+        return new Result(Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray(), errors.get());
+    }
+
+    private static long[] drive(HttpClient http, URI base, int items, long deadline, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] samples = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = nextRequest(base, items, random);
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = System.nanoTime() - started;
+        }
+        return Arrays.copyOf(samples, count);
+    }
+
+    private static HttpRequest nextRequest(URI base, int items, ThreadLocalRandom random) {
+        long booker = BenchmarkDataset.BOOKER_ID + random.nextInt(BenchmarkDataset.BOOKERS);
+        long owner = 1 + random.nextInt(BenchmarkDataset.OWNERS);
+        String path = switch (random.nextInt(3)) {
+            case 0 -> "/bookings?state=ALL&size=10";
+            case 1 -> "/bookings/owner?state=ALL&size=10";
+            default -> "/items/" + (1 + random.nextInt(items));
+        };
+        long user = path.startsWith("/bookings?") ? booker : owner;
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("X-Sharer-User-Id", String.valueOf(user))
+                .GET()
+                .build();
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    private record Result(long[] sortedNanos, long errors) {
+
+        String format(String mode, int clients, Duration duration) {
+            return String.format(Locale.ROOT,
+                    "%-8s clients=%d requests=%d throughput=%.0f/s "
+                            + "p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms errors=%d",
+                    mode, clients, sortedNanos.length, sortedNanos.length / (duration.toMillis() / 1000.0),
+                    millis(0.5), millis(0.99), millis(0.999), millis(1.0), errors);
+        }
+
+        private double millis(double quantile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
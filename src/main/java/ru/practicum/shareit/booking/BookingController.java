@@ -1,8 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.pagination.NdjsonStreamer;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
@@ -10,8 +19,10 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
     private final BookingService bookingService;
+    private final NdjsonStreamer ndjsonStreamer;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -29,6 +40,21 @@ public class BookingController {
         return bookingService.updateBookingStatus(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestBody List<BookingDto> bookingDtos) {
+        return bookingService.createBookings(userId, bookingDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBookingStatuses(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam Boolean approved,
+            @RequestBody List<Long> bookingIds) throws AccessDeniedException {
+        return bookingService.updateBookingStatuses(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(
             @RequestHeader(USER_ID_HEADER) Long userId,
@@ -39,14 +65,26 @@ public class BookingController {
     @GetMapping
     public List<BookingDto> getUserBookings(
             @RequestHeader(USER_ID_HEADER) Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getUserBookings(userId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+        return bookingService.getUserBookings(userId, state, from, size);
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getOwnerBookings(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+        return bookingService.getOwnerBookings(userId, state, from, size);
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getOwnerBookings(userId, state);
+        return ndjsonStreamer.stream(bookingService.streamOwnerBookings(userId, state),
+                bookings -> bookings.stream().map(BookingMapper::toDto).toList());
     }
 }
@@ -1,28 +1,213 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.expiry.WaitingBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
+    /**
+     * Rows fetched per round trip by the {@code stream...} queries, which are read through a database cursor.
+     */
+    String STREAM_FETCH_SIZE = "500";
 
-    List<Booking> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
-    List<Booking> findByItemOwnerId(Long ownerId, Sort sort);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findLockedById(@Param("id") Long id);
 
-    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND b.item.id = :itemId " +
-            "AND b.end < :endDate " +
-            "AND b.status = 'APPROVED'")
-    boolean existsByBookerIdAndItemIdAndEndBefore(
-            @Param("bookerId") Long bookerId,
+    /**
+     * Locks the bookings in id order, so that concurrent batches cannot deadlock on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findLockedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Whether the item has a booking in the given status that overlaps {@code [start, end)}.
+     */
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findByItemIdInAndStatusAndStartBeforeAndEndAfter(
+            Collection<Long> itemIds, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findByItemIdInAndStatusInAndEndAfter(
+            Collection<Long> itemIds, Collection<BookingStatus> statuses, LocalDateTime end);
+
+    /**
+     * Those of the given items that have an APPROVED booking overlapping {@code [start, end)}.
+     */
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start < :end AND b.end > :start")
+    List<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerId(Long bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(
+            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStartAfterAndEndAfter(
+            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    /**
+     * The owner queries join items explicitly: the derived {@code item.owner.id} path is an outer join,
+     * which keeps the planner from starting at {@code idx_items_owner_id}. Future bookings are also bounded
+     * by {@code end}, which PostgreSQL needs to skip the partitions of past months.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId")
+    List<Booking> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.start < :start AND b.end > :end")
+    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.end < :end")
+    List<Booking> findByItemOwnerIdAndEndBefore(
+            @Param("ownerId") Long ownerId, @Param("end") LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.start > :start AND b.end > :start")
+    List<Booking> findByItemOwnerIdAndStartAfter(
+            @Param("ownerId") Long ownerId, @Param("start") LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.status = :status")
+    List<Booking> findByItemOwnerIdAndStatus(
+            @Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId")
+    Stream<Booking> streamByItemOwnerId(@Param("ownerId") Long ownerId, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.start < :start AND b.end > :end")
+    Stream<Booking> streamByItemOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.end < :end")
+    Stream<Booking> streamByItemOwnerIdAndEndBefore(
+            @Param("ownerId") Long ownerId, @Param("end") LocalDateTime end, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.start > :start AND b.end > :start")
+    Stream<Booking> streamByItemOwnerIdAndStartAfter(
+            @Param("ownerId") Long ownerId, @Param("start") LocalDateTime start, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.status = :status")
+    Stream<Booking> streamByItemOwnerIdAndStatus(
+            @Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Sort sort);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.start <= :now " +
+            "AND b.end > :now " +
+            "ORDER BY b.end DESC")
+    Optional<ItemBookingDto> findLastBooking(
+            @Param("itemId") Long itemId,
+            @Param("now") LocalDateTime now,
+            Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.start > :now " +
+            "ORDER BY b.start ASC")
+    Optional<ItemBookingDto> findNextBooking(
             @Param("itemId") Long itemId,
-            @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+            @Param("now") LocalDateTime now,
+            Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.start <= :now " +
+            "AND b.end > :now " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l " +
+            "WHERE l.item.id = b.item.id AND l.start <= :now AND l.end > :now)")
+    List<ItemBookingDto> findLastBookings(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.start > :now " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item.id = b.item.id AND n.start > :now)")
+    List<ItemBookingDto> findNextBookings(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.expiry.WaitingBooking(b.id, b.start, b.createdAt) " +
+            "FROM Booking b " +
+            "WHERE b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.id > :afterId " +
+            "ORDER BY b.id")
+    List<WaitingBooking> findWaitingAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :cutoff ORDER BY b.end")
+    List<Long> findIdsByEndBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * The {@code end} bound lets PostgreSQL prune the delete to the partitions being archived.
+     */
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids AND b.end < :cutoff")
+    int deleteByIdInAndEndBefore(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Whether the booker has a booking of the item in the given status that ended before {@code end}.
+     * Derived as {@code SELECT ... FETCH FIRST 1 ROWS}, so it stops at the first match in
+     * {@code idx_bookings_booker_item_status_end}.
+     */
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
+            Long bookerId, Long itemId, BookingStatus status, LocalDateTime end);
+}
@@ -1,31 +1,74 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingEventPublisher;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.exception.dto.ErrorResponse;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.SortedMerge;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    // the id breaks ties between bookings with the same start, so that pages neither repeat nor skip them
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final Comparator<Booking> BY_START_DESC = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final ItemCardCache itemCardCache;
+    private final ItemSummaryService itemSummaryService;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
+    @Transactional
     public BookingDto createBooking(Long userId, BookingDto bookingDto) throws AccessDeniedException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
@@ -39,38 +82,178 @@ public class BookingService {
                 .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена"));
 
         validateBooking(bookingDto, user, item);
+        checkNoApprovedOverlap(itemId, bookingDto.getStart(), bookingDto.getEnd());
 
         Booking booking = BookingMapper.toBooking(bookingDto, user, item);
         booking.setStatus(BookingStatus.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingEventPublisher.publish(List.of(savedBooking));
+        itemSummaryService.onBookingsCreated(List.of(itemId));
+        itemCardCache.evict(itemId);
+        itemAvailabilityIndex.onBookingsChanged(List.of(savedBooking));
         return BookingMapper.toDto(savedBooking);
     }
 
+    @Transactional
     public BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) throws AccessDeniedException {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new AccessDeniedException("Пользователь не найден");
         }
 
-        User user = userRepository.findById(userId).orElse(null);
-
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findLockedById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new AccessDeniedException("Только владелец может подтверждать бронирование");
-        }
+        checkCanUpdateStatus(booking, userId);
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new ValidationException("Бронирование уже было обработано");
+        if (approved) {
+            // approvals of one item are serialized on its row, so the overlap check cannot race
+            itemRepository.findLockedById(booking.getItem().getId());
+            checkNoApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd());
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        bookingEventPublisher.publish(List.of(updatedBooking));
+        itemCardCache.evict(booking.getItem().getId());
+        itemAvailabilityIndex.onBookingsChanged(List.of(updatedBooking));
         return BookingMapper.toDto(updatedBooking);
     }
 
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingDto> bookingDtos) {
+        checkBatchSize(bookingDtos.size());
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<BookingDto> dated = bookingDtos.stream()
+                .filter(dto -> dto != null && dto.getStart() != null && dto.getEnd() != null)
+                .toList();
+        Map<Long, List<Booking>> approvedByItem = findApprovedOverlapping(items.keySet(),
+                dated.stream().map(BookingDto::getStart).toList(),
+                dated.stream().map(BookingDto::getEnd).toList());
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> bookingIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                if (bookingDto == null) {
+                    throw new ValidationException("Бронирование не указано");
+                }
+                Item item = bookingDto.getItemId() == null ? null : items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw bookingDto.getItemId() == null
+                            ? new ValidationException("ID вещи не указан")
+                            : new EntityNotFoundException("Вещь не найдена");
+                }
+                validateBooking(bookingDto, user, item);
+                checkNoOverlap(approvedByItem.get(item.getId()), bookingDto.getStart(), bookingDto.getEnd());
+
+                Booking booking = BookingMapper.toBooking(bookingDto, user, item);
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+                bookingIndexes.add(i);
+            } catch (AccessDeniedException | ValidationException | EntityNotFoundException
+                     | BookingConflictException e) {
+                results[i] = toFailure(i, e);
+            }
+        }
+
+        // ids come from the pooled sequence, so the inserts are flushed as JDBC batches on commit
+        bookingRepository.saveAll(bookings);
+        for (int k = 0; k < bookings.size(); k++) {
+            int index = bookingIndexes.get(k);
+            results[index] = toSuccess(index, bookings.get(k));
+        }
+        bookingEventPublisher.publish(bookings);
+        itemSummaryService.onBookingsCreated(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(TreeSet::new)));
+        evictItemCards(bookings);
+        itemAvailabilityIndex.onBookingsChanged(bookings);
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    public List<BookingBatchResultDto> updateBookingStatuses(Long userId, List<Long> bookingIds, Boolean approved)
+            throws AccessDeniedException {
+        checkBatchSize(bookingIds.size());
+        if (!userExistenceCache.exists(userId)) {
+            throw new AccessDeniedException("Пользователь не найден");
+        }
+
+        Set<Long> lockedIds = bookingIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Booking> bookings = bookingRepository.findLockedByIdIn(lockedIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        if (approved) {
+            List<Booking> candidates = bookings.values().stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.WAITING
+                            && booking.getItem().getOwner().getId().equals(userId))
+                    .toList();
+            Set<Long> itemIds = candidates.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toCollection(TreeSet::new));
+            if (!itemIds.isEmpty()) {
+                // same lock order as single approvals: bookings first, then items by ascending id
+                itemRepository.findLockedByIdIn(itemIds);
+                approvedByItem = findApprovedOverlapping(itemIds,
+                        candidates.stream().map(Booking::getStart).toList(),
+                        candidates.stream().map(Booking::getEnd).toList());
+            }
+        }
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingIds.size()];
+        List<Booking> updated = new ArrayList<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            try {
+                Long bookingId = bookingIds.get(i);
+                if (bookingId == null) {
+                    throw new ValidationException("ID бронирования не указан");
+                }
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    throw new EntityNotFoundException("Бронирование не найдено");
+                }
+                checkCanUpdateStatus(booking, userId);
+
+                if (approved) {
+                    List<Booking> itemApproved = approvedByItem.computeIfAbsent(booking.getItem().getId(),
+                            itemId -> new ArrayList<>());
+                    checkNoOverlap(itemApproved, booking.getStart(), booking.getEnd());
+                    itemApproved.add(booking);
+                }
+                booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                updated.add(booking);
+                results[i] = toSuccess(i, booking);
+            } catch (AccessDeniedException | ValidationException | EntityNotFoundException
+                     | BookingConflictException e) {
+                results[i] = toFailure(i, e);
+            }
+        }
+
+        bookingEventPublisher.publish(updated);
+        evictItemCards(updated);
+        itemAvailabilityIndex.onBookingsChanged(updated);
+        return Arrays.asList(results);
+    }
+
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(Long userId, Long bookingId) throws AccessDeniedException {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .or(() -> bookingArchiveRepository.findWithItemAndBookerById(bookingId)
+                        .map(ArchivedBooking::toBooking))
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
 
         if (!booking.getBooker().getId().equals(userId) &&
@@ -81,18 +264,109 @@ public class BookingService {
         return BookingMapper.toDto(booking);
     }
 
-    public List<BookingDto> getUserBookings(Long userId, String state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookings(Long userId, String state, int from, int size) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
 
-        return filterBookings(bookingRepository.findByBookerId(userId, Sort.by(Sort.Direction.DESC, "start")), state);
+        Pageable page = OffsetPageRequest.of(from, size, SORT_BY_START_DESC);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = switch (BookingState.from(state)) {
+            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(userId, now, now, page);
+            case PAST -> withArchive(from, size,
+                    head -> bookingRepository.findByBookerIdAndEndBefore(userId, now, head),
+                    head -> bookingArchiveRepository.findByBookerId(userId, head));
+            case FUTURE -> bookingRepository.findByBookerIdAndStartAfterAndEndAfter(userId, now, now, page);
+            case WAITING -> withArchive(from, size,
+                    head -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, head),
+                    head -> bookingArchiveRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, head));
+            case REJECTED -> withArchive(from, size,
+                    head -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, head),
+                    head -> bookingArchiveRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, head));
+            case ALL -> withArchive(from, size,
+                    head -> bookingRepository.findByBookerId(userId, head),
+                    head -> bookingArchiveRepository.findByBookerId(userId, head));
+        };
+        return toDtos(bookings);
     }
 
-    public List<BookingDto> getOwnerBookings(Long userId, String state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnerBookings(Long userId, String state, int from, int size) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+
+        Pageable page = OffsetPageRequest.of(from, size, SORT_BY_START_DESC);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = switch (BookingState.from(state)) {
+            case CURRENT -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(userId, now, now, page);
+            case PAST -> withArchive(from, size,
+                    head -> bookingRepository.findByItemOwnerIdAndEndBefore(userId, now, head),
+                    head -> bookingArchiveRepository.findByItemOwnerId(userId, head));
+            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfter(userId, now, page);
+            case WAITING -> withArchive(from, size,
+                    head -> bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, head),
+                    head -> bookingArchiveRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, head));
+            case REJECTED -> withArchive(from, size,
+                    head -> bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, head),
+                    head -> bookingArchiveRepository.findByItemOwnerIdAndStatus(
+                            userId, BookingStatus.REJECTED, head));
+            case ALL -> withArchive(from, size,
+                    head -> bookingRepository.findByItemOwnerId(userId, head),
+                    head -> bookingArchiveRepository.findByItemOwnerId(userId, head));
+        };
+        return toDtos(bookings);
+    }
+
+    /**
+     * Validates the request up front and returns the query behind the streaming variant of
+     * {@link #getOwnerBookings}; the returned stream has to be consumed and closed inside a transaction.
+     */
+    public Supplier<Stream<Booking>> streamOwnerBookings(Long userId, String state) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
 
-        return filterBookings(bookingRepository.findByItemOwnerId(userId, Sort.by(Sort.Direction.DESC, "start")), state);
+        BookingState bookingState = BookingState.from(state);
+        return () -> {
+            LocalDateTime now = LocalDateTime.now();
+            return switch (bookingState) {
+                case CURRENT -> bookingRepository.streamByItemOwnerIdAndStartBeforeAndEndAfter(
+                        userId, now, now, SORT_BY_START_DESC);
+                case PAST -> SortedMerge.merge(
+                        bookingRepository.streamByItemOwnerIdAndEndBefore(userId, now, SORT_BY_START_DESC),
+                        bookingArchiveRepository.streamByItemOwnerId(userId, SORT_BY_START_DESC)
+                                .map(ArchivedBooking::toBooking),
+                        BY_START_DESC);
+                case FUTURE -> bookingRepository.streamByItemOwnerIdAndStartAfter(userId, now, SORT_BY_START_DESC);
+                case WAITING -> streamOwnerBookingsByStatus(userId, BookingStatus.WAITING);
+                case REJECTED -> streamOwnerBookingsByStatus(userId, BookingStatus.REJECTED);
+                case ALL -> SortedMerge.merge(
+                        bookingRepository.streamByItemOwnerId(userId, SORT_BY_START_DESC),
+                        bookingArchiveRepository.streamByItemOwnerId(userId, SORT_BY_START_DESC)
+                                .map(ArchivedBooking::toBooking),
+                        BY_START_DESC);
+            };
+        };
+    }
+
+    private Stream<Booking> streamOwnerBookingsByStatus(Long userId, BookingStatus status) {
+        return SortedMerge.merge(
+                bookingRepository.streamByItemOwnerIdAndStatus(userId, status, SORT_BY_START_DESC),
+                bookingArchiveRepository.streamByItemOwnerIdAndStatus(userId, status, SORT_BY_START_DESC)
+                        .map(ArchivedBooking::toBooking),
+                BY_START_DESC);
+    }
+
+    private void checkCanUpdateStatus(Booking booking, Long userId) throws AccessDeniedException {
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            throw new AccessDeniedException("Только владелец может подтверждать бронирование");
+        }
+
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ValidationException("Бронирование уже было обработано");
+        }
     }
 
     private void validateBooking(BookingDto bookingDto, User user, Item item) throws AccessDeniedException {
@@ -104,6 +378,10 @@ public class BookingService {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
 
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new ValidationException("Даты начала и окончания обязательны");
+        }
+
         if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
             throw new ValidationException("Дата начала должна быть раньше даты окончания");
         }
@@ -113,39 +391,118 @@ public class BookingService {
         }
     }
 
-    private List<BookingDto> filterBookings(List<Booking> bookings, String state) {
-        LocalDateTime now = LocalDateTime.now();
-        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
-
-        return switch (bookingState) {
-            case CURRENT -> bookings.stream()
-                    .filter(b -> b.getStart().isBefore(now) && b.getEnd().isAfter(now))
-                    .map(BookingMapper::toDto)
-                    .collect(Collectors.toList());
-            case PAST -> bookings.stream()
-                    .filter(b -> b.getEnd().isBefore(now))
-                    .map(BookingMapper::toDto)
-                    .collect(Collectors.toList());
-            case FUTURE -> bookings.stream()
-                    .filter(b -> b.getStart().isAfter(now))
-                    .map(BookingMapper::toDto)
-                    .collect(Collectors.toList());
-            case WAITING -> bookings.stream()
-                    .filter(b -> b.getStatus() == BookingStatus.WAITING)
-                    .map(BookingMapper::toDto)
-                    .collect(Collectors.toList());
-            case REJECTED -> bookings.stream()
-                    .filter(b -> b.getStatus() == BookingStatus.REJECTED)
-                    .map(BookingMapper::toDto)
-                    .collect(Collectors.toList());
-            default -> // ALL
-                    bookings.stream()
-                            .map(BookingMapper::toDto)
-                            .collect(Collectors.toList());
-        };
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                itemId, BookingStatus.APPROVED, end, start)) {
+            throw new BookingConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
+    /**
+     * Approved bookings of the given items that overlap the window from the earliest start to the latest end,
+     * grouped by item, so that each candidate can then be checked in memory.
+     */
+    private Map<Long, List<Booking>> findApprovedOverlapping(Collection<Long> itemIds,
+                                                            List<LocalDateTime> starts, List<LocalDateTime> ends) {
+        if (itemIds.isEmpty() || starts.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime start = Collections.min(starts);
+        LocalDateTime end = Collections.max(ends);
+        return bookingRepository.findByItemIdInAndStatusAndStartBeforeAndEndAfter(
+                        itemIds, BookingStatus.APPROVED, end, start).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        HashMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private void checkNoOverlap(List<Booking> approved, LocalDateTime start, LocalDateTime end) {
+        if (approved != null && approved.stream()
+                .anyMatch(booking -> booking.getStart().isBefore(end) && booking.getEnd().isAfter(start))) {
+            throw new BookingConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new ValidationException(
+                    "В одном запросе можно передать не более " + MAX_BATCH_SIZE + " бронирований");
+        }
+    }
+
+    private void evictItemCards(List<Booking> bookings) {
+        bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemCardCache::evict);
+    }
+
+    private static BookingBatchResultDto toSuccess(int index, Booking booking) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(HttpStatus.OK.value())
+                .booking(BookingMapper.toDto(booking))
+                .build();
+    }
+
+    /**
+     * Reports a rejected batch entry with the status and error the single-booking endpoint would have returned.
+     */
+    private static BookingBatchResultDto toFailure(int index, Exception e) {
+        HttpStatus status;
+        String error;
+        if (e instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+            error = "Access Denied";
+        } else if (e instanceof EntityNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            error = "Entity Not Found";
+        } else if (e instanceof BookingConflictException) {
+            status = HttpStatus.CONFLICT;
+            error = "Conflict";
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Validation Error";
+        }
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(new ErrorResponse(error, e.getMessage()))
+                .build();
+    }
+
+    /**
+     * Page of a listing that also covers archived bookings. An offset into the merged order cannot be split
+     * between the two tables up front, so both are read from the first row up to {@code from + size}, and the
+     * cost of a page grows with {@code from}.
+     */
+    private List<Booking> withArchive(int from, int size,
+                                      Function<Pageable, List<Booking>> hot,
+                                      Function<Pageable, List<ArchivedBooking>> archived) {
+        long end = (long) from + size;
+        if (end > Integer.MAX_VALUE) {
+            throw new ValidationException("Сумма from и size не может превышать " + Integer.MAX_VALUE);
+        }
+        Pageable head = OffsetPageRequest.of(0, (int) end, SORT_BY_START_DESC);
+        return SortedMerge.page(hot.apply(head),
+                archived.apply(head).stream().map(ArchivedBooking::toBooking).toList(),
+                BY_START_DESC, from, size);
+    }
+
+    private List<BookingDto> toDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList());
     }
 
     private enum BookingState {
-        ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+        ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
+
+        static BookingState from(String state) {
+            try {
+                return valueOf(state.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown state: " + state);
+            }
+        }
     }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.archive;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findWithItemAndBookerById(Long id);
+
+    /**
+     * Archived bookings have all ended, so this serves both the PAST and the ALL state.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findByBookerId(Long bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b JOIN b.item i WHERE i.owner.id = :ownerId")
+    List<ArchivedBooking> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.status = :status")
+    List<ArchivedBooking> findByItemOwnerIdAndStatus(
+            @Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BookingRepository.STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b JOIN b.item i WHERE i.owner.id = :ownerId")
+    Stream<ArchivedBooking> streamByItemOwnerId(@Param("ownerId") Long ownerId, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BookingRepository.STREAM_FETCH_SIZE))
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b JOIN b.item i WHERE i.owner.id = :ownerId AND b.status = :status")
+    Stream<ArchivedBooking> streamByItemOwnerIdAndStatus(
+            @Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Sort sort);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
+            Long bookerId, Long itemId, BookingStatus status, LocalDateTime end);
+
+    /**
+     * Copies the bookings into the archive; {@link BookingArchiver} deletes them from {@code bookings}
+     * in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, archived_at) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, status, :now FROM bookings " +
+            "WHERE id IN :ids AND end_date < :cutoff",
+            nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff,
+                         @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking-archive.horizon} ago from {@code bookings}
+ * to {@code bookings_archive}, one batch per transaction, whatever their status. Lookups by id, the
+ * listings of ended or status-filtered bookings and comment eligibility also read the archive; the
+ * CURRENT and FUTURE listings, overlap checks and item views stay on the hot table.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter moved;
+    private final Duration horizon;
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking-archive.horizon:365d}") Duration horizon,
+                           @Value("${shareit.booking-archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.moved = Counter.builder("shareit.booking-archive.moved")
+                .description("Bookings moved to the archive table")
+                .register(meterRegistry);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}",
+            initialDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int count;
+        do {
+            count = archive(now.minus(horizon), now);
+            total += count;
+        } while (count == batchSize);
+        if (total > 0) {
+            log.info("Archived {} bookings that ended before {}", total, now.minus(horizon));
+        }
+    }
+
+    /**
+     * Moves one batch of bookings that ended before {@code cutoff}.
+     *
+     * @return the number of bookings moved
+     */
+    public int archive(LocalDateTime cutoff, LocalDateTime now) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Long> ids = bookingRepository.findIdsByEndBefore(cutoff, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            bookingArchiveRepository.copyFromBookings(ids, cutoff, now);
+            return bookingRepository.deleteByIdInAndEndBefore(ids, cutoff);
+        });
+        moved.increment(count == null ? 0 : count);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the PostgreSQL {@code bookings} table (see db/migration/postgresql):
+ * creates the partitions of the coming months, taking over rows that already landed in the default
+ * partition, and drops the partitions the archiver has emptied.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.bookings.partitioned", havingValue = "true")
+public class BookingPartitionMaintainer {
+    private static final String PREFIX = "bookings_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final Duration horizon;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbc,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${shareit.bookings.partition-months-ahead:3}") int monthsAhead,
+                                      @Value("${shareit.booking-archive.horizon:365d}") Duration horizon) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.horizon = horizon;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.partition-check-interval:P1D}")
+    public void run() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        dropArchivedPartitions(YearMonth.from(LocalDateTime.now().minus(horizon)));
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = PREFIX + month.format(SUFFIX);
+        if (jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        // ATTACH checks that the default partition holds no rows of the new range, so they are moved first
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.execute("CREATE TABLE " + name + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbc.update("WITH moved AS (DELETE FROM bookings_default "
+                    + "WHERE end_date >= ? AND end_date < ? RETURNING *) "
+                    + "INSERT INTO " + name + " SELECT * FROM moved", from, to);
+            jdbc.execute("ALTER TABLE bookings ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Created booking partition {} and moved {} rows into it from the default one", name, moved);
+        });
+    }
+
+    /**
+     * Drops the partitions whose whole month ended before the archive horizon once they are empty.
+     */
+    private void dropArchivedPartitions(YearMonth horizonMonth) {
+        List<String> partitions = jdbc.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'bookings'::regclass AND c.relname LIKE 'bookings\\_p%'", String.class);
+        for (String name : partitions) {
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (!month.isBefore(horizonMonth)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM " + name + ")", Boolean.class)) {
+                    jdbc.execute("ALTER TABLE bookings DETACH PARTITION " + name);
+                    jdbc.execute("DROP TABLE " + name);
+                    log.info("Dropped archived booking partition {}", name);
+                }
+            });
+        }
+    }
+}
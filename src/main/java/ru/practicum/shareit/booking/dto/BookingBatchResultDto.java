@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.exception.dto.ErrorResponse;
+
+/**
+ * Outcome of one entry of a batch request; {@code index} is the entry's position in the request.
+ */
+@Data
+@Builder
+public class BookingBatchResultDto {
+    private int index;
+    private int status;
+    private BookingDto booking;
+    private ErrorResponse error;
+}
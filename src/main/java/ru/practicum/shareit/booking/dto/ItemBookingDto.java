@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemBookingDto {
+    private Long itemId;
+    private Long id;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public ItemResponseDto.BookingInfoDto toInfoDto() {
+        return new ItemResponseDto.BookingInfoDto(id, bookerId);
+    }
+}
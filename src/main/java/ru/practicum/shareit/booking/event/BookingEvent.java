@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row describing a booking as it was after a change: {@code WAITING} for a new booking,
+ * the new status otherwise. Written in the transaction that changes the booking.
+ */
+@Entity
+@Table(name = "booking_events")
+@Data
+@NoArgsConstructor
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_event_seq")
+    @SequenceGenerator(name = "booking_event_seq", sequenceName = "booking_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * When a dispatcher took the event for delivery; {@code null} while it waits in the outbox.
+     */
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    public static BookingEvent of(Booking booking, LocalDateTime now) {
+        BookingEvent event = new BookingEvent();
+        event.setBookingId(booking.getId());
+        event.setItemId(booking.getItem().getId());
+        event.setOwnerId(booking.getItem().getOwner().getId());
+        event.setBookerId(booking.getBooker().getId());
+        event.setStatus(booking.getStatus());
+        event.setStart(booking.getStart());
+        event.setEnd(booking.getEnd());
+        event.setCreatedAt(now);
+        return event;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Downstream handler of booking events, called by {@link BookingEventDispatcher} on a thread of its own.
+ * Events arrive in batches ordered by id; a batch may be delivered again after a failure
+ * or a restart, so handling has to be idempotent.
+ */
+public interface BookingEventConsumer {
+    void accept(List<BookingEvent> events);
+
+    /**
+     * Name of the consumer in thread names and metric tags.
+     */
+    default String name() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+}
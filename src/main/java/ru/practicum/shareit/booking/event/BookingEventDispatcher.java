@@ -0,0 +1,258 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the {@code booking_events} outbox to the {@link BookingEventConsumer}s.
+ *
+ * <p>Each run claims batches of events and queues every batch for every consumer. A consumer handles its
+ * queue on a thread of its own, so a slow consumer delays neither the booking endpoints nor the other
+ * consumers. The queues are bounded: while one of them is full, no further events are claimed and the
+ * backlog stays in the table. A batch is deleted once all consumers are done with it; claims older than
+ * {@code shareit.booking-events.claim-timeout} are released, so batches lost with a stopped instance
+ * are delivered again.
+ */
+@Slf4j
+@Component
+public class BookingEventDispatcher {
+    private final BookingEventRepository bookingEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Channel> channels;
+    private final Map<Long, Batch> inFlight = new ConcurrentSkipListMap<>();
+    private final Counter claimed;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    private volatile boolean running;
+
+    public BookingEventDispatcher(BookingEventRepository bookingEventRepository,
+                                  List<BookingEventConsumer> consumers,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking-events.batch-size:500}") int batchSize,
+                                  @Value("${shareit.booking-events.queue-capacity:4}") int queueCapacity,
+                                  @Value("${shareit.booking-events.max-attempts:3}") int maxAttempts,
+                                  @Value("${shareit.booking-events.claim-timeout:10m}") Duration claimTimeout) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.channels = consumers.stream()
+                .map(consumer -> new Channel(consumer, queueCapacity, meterRegistry))
+                .toList();
+        this.claimed = Counter.builder("shareit.booking-events.claimed")
+                .description("Booking events taken from the outbox for delivery")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking-events.lag", this, BookingEventDispatcher::lagSeconds)
+                .description("Age of the oldest claimed booking event not yet handled by every consumer")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        channels.forEach(Channel::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        channels.forEach(channel -> channel.worker.interrupt());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-events.poll-interval:PT1S}",
+            initialDelayString = "${shareit.booking-events.poll-interval:PT1S}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status ->
+                bookingEventRepository.releaseClaimedBefore(now.minus(claimTimeout)));
+        if (released != null && released > 0) {
+            log.warn("Released {} booking events claimed before {}", released, now.minus(claimTimeout));
+        }
+
+        int count;
+        do {
+            count = dispatch();
+        } while (count == batchSize);
+    }
+
+    /**
+     * Claims one batch of events and queues it for every consumer.
+     *
+     * @return the number of events claimed; {@code 0} if the outbox is empty or a consumer queue is full
+     */
+    public int dispatch() {
+        if (channels.stream().anyMatch(Channel::isFull)) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = transactionTemplate.execute(status -> {
+            List<BookingEvent> found = bookingEventRepository.findLockedUnclaimed(Limit.of(batchSize));
+            if (!found.isEmpty()) {
+                bookingEventRepository.claim(found.stream().map(BookingEvent::getId).toList(), now);
+            }
+            return found;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Batch batch = new Batch(List.copyOf(events), new AtomicInteger(channels.size()));
+        claimed.increment(events.size());
+        inFlight.put(batch.firstId(), batch);
+        if (channels.isEmpty()) {
+            complete(batch);
+        }
+        // room was checked above and this is the only producer, so none of the queues can be full
+        channels.forEach(channel -> channel.queue.add(batch));
+        return events.size();
+    }
+
+    private double lagSeconds() {
+        return inFlight.values().stream()
+                .map(Batch::oldest)
+                .min(Comparator.naturalOrder())
+                .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+    }
+
+    private void work(Channel channel) {
+        while (running) {
+            Batch batch;
+            try {
+                batch = channel.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!deliver(channel, batch)) {
+                return;
+            }
+            complete(batch);
+        }
+    }
+
+    /**
+     * Hands the batch to the consumer, retrying failures; gives up on the batch after {@code maxAttempts}.
+     *
+     * @return {@code false} if the thread was interrupted and the batch is left to be released
+     */
+    private boolean deliver(Channel channel, Batch batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                channel.handling.record(() -> channel.consumer.accept(batch.events()));
+                channel.delivered.increment(batch.events().size());
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("{} failed to handle booking events {}..{}, skipping them", channel.consumer.name(),
+                            batch.firstId(), batch.lastId(), e);
+                    channel.failed.increment(batch.events().size());
+                    return true;
+                }
+                log.warn("{} failed to handle booking events {}..{}, attempt {} of {}", channel.consumer.name(),
+                        batch.firstId(), batch.lastId(), attempt, maxAttempts, e);
+            }
+            try {
+                Thread.sleep(Duration.ofSeconds(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private void complete(Batch batch) {
+        if (batch.remaining().decrementAndGet() > 0) {
+            return;
+        }
+        try {
+            bookingEventRepository.deleteAllByIdInBatch(batch.events().stream().map(BookingEvent::getId).toList());
+        } catch (RuntimeException e) {
+            log.error("Could not delete delivered booking events {}..{}, they will be delivered again",
+                    batch.firstId(), batch.lastId(), e);
+        }
+        inFlight.remove(batch.firstId());
+    }
+
+    private record Batch(List<BookingEvent> events, AtomicInteger remaining) {
+        Long firstId() {
+            return events.get(0).getId();
+        }
+
+        Long lastId() {
+            return events.get(events.size() - 1).getId();
+        }
+
+        LocalDateTime oldest() {
+            return events.stream().map(BookingEvent::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+
+    private final class Channel {
+        private final BookingEventConsumer consumer;
+        private final BlockingQueue<Batch> queue;
+        private final Thread worker;
+        private final Timer handling;
+        private final Counter delivered;
+        private final Counter failed;
+
+        private Channel(BookingEventConsumer consumer, int capacity, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = Thread.ofPlatform()
+                    .name("booking-events-" + consumer.name())
+                    .daemon()
+                    .unstarted(() -> work(this));
+            this.handling = Timer.builder("shareit.booking-events.handling")
+                    .description("Time a consumer takes to handle a batch of booking events")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry);
+            this.delivered = Counter.builder("shareit.booking-events.delivered")
+                    .description("Booking events handled by a consumer")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry);
+            this.failed = Counter.builder("shareit.booking-events.failed")
+                    .description("Booking events a consumer gave up on")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.booking-events.queued", queue, BlockingQueue::size)
+                    .description("Batches of booking events waiting for a consumer")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry);
+        }
+
+        private void start() {
+            worker.start();
+        }
+
+        private boolean isFull() {
+            return queue.remainingCapacity() == 0;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Writes the outbox rows of changed bookings. Runs only inside the transaction that changes them,
+ * so an event exists exactly when its change is committed; {@link BookingEventDispatcher} delivers it later.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventPublisher {
+    private final BookingEventRepository bookingEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        bookingEventRepository.saveAll(bookings.stream()
+                .map(booking -> BookingEvent.of(booking, now))
+                .toList());
+    }
+}
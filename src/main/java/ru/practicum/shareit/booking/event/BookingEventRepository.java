@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    /**
+     * Oldest events nobody has claimed. The rows stay locked until the claim commits, so dispatchers of
+     * other instances wait and then skip them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM BookingEvent e WHERE e.claimedAt IS NULL ORDER BY e.id")
+    List<BookingEvent> findLockedUnclaimed(Limit limit);
+
+    @Modifying
+    @Query("UPDATE BookingEvent e SET e.claimedAt = :now WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Returns events claimed before {@code before} to the outbox; their dispatcher is assumed to be gone.
+     */
+    @Modifying
+    @Query("UPDATE BookingEvent e SET e.claimedAt = NULL WHERE e.claimedAt < :before")
+    int releaseClaimedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Notifies owners of new bookings of their items and bookers of decisions on theirs, one message per
+ * recipient and batch. There is no mail gateway yet, so messages go to the log.
+ */
+@Slf4j
+@Component
+public class BookingNotifier implements BookingEventConsumer {
+    @Override
+    public void accept(List<BookingEvent> events) {
+        Map<Long, List<BookingEvent>> byRecipient = events.stream()
+                .collect(Collectors.groupingBy(BookingNotifier::recipient, TreeMap::new, Collectors.toList()));
+        byRecipient.forEach((userId, userEvents) -> log.info("Уведомление пользователю {}: {}", userId,
+                userEvents.stream().map(BookingNotifier::describe).collect(Collectors.joining("; "))));
+    }
+
+    private static Long recipient(BookingEvent event) {
+        return switch (event.getStatus()) {
+            case WAITING -> event.getOwnerId();
+            case APPROVED, REJECTED, CANCELED -> event.getBookerId();
+        };
+    }
+
+    private static String describe(BookingEvent event) {
+        String change = switch (event.getStatus()) {
+            case WAITING -> "новый запрос на бронирование";
+            case APPROVED -> "бронирование подтверждено";
+            case REJECTED -> "бронирование отклонено";
+            case CANCELED -> "бронирование отменено";
+        };
+        return change + " #" + event.getBookingId() + " вещи #" + event.getItemId()
+                + " с " + event.getStart() + " по " + event.getEnd();
+    }
+}
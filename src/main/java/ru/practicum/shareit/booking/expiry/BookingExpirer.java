@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventConsumer;
+import ru.practicum.shareit.booking.event.BookingEventPublisher;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels WAITING bookings the owner has not decided on in time: once they start, or once they have waited
+ * for {@code shareit.booking-expiry.timeout}, whichever comes first.
+ *
+ * <p>Deadlines are kept in a {@link TimingWheel}. It is loaded from the table at startup and fed with new
+ * bookings from the booking events, so no run scans the table. Entries of bookings decided meanwhile are
+ * not removed; the cancellation only touches bookings that are still WAITING, in batched updates.
+ */
+@Slf4j
+@Component
+public class BookingExpirer implements BookingEventConsumer {
+    private final BookingRepository bookingRepository;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final ItemCardCache itemCardCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter canceled;
+    private final Duration timeout;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimingWheel wheel;
+    private final List<Long> due = new ArrayList<>();
+
+    public BookingExpirer(BookingRepository bookingRepository,
+                          BookingEventPublisher bookingEventPublisher,
+                          ItemCardCache itemCardCache,
+                          ItemAvailabilityIndex itemAvailabilityIndex,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.booking-expiry.timeout:48h}") Duration timeout,
+                          @Value("${shareit.booking-expiry.tick:PT1S}") Duration tick,
+                          @Value("${shareit.booking-expiry.wheel-size:512}") int wheelSize,
+                          @Value("${shareit.booking-expiry.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingEventPublisher = bookingEventPublisher;
+        this.itemCardCache = itemCardCache;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.canceled = Counter.builder("shareit.booking-expiry.canceled")
+                .description("WAITING bookings canceled because the owner did not decide in time")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking-expiry.scheduled", this, BookingExpirer::scheduled)
+                .description("Booking deadlines held in the timing wheel")
+                .register(meterRegistry);
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tick.toMillis(), wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int loaded = 0;
+        List<WaitingBooking> page;
+        do {
+            page = bookingRepository.findWaitingAfter(afterId, Limit.of(batchSize));
+            page.forEach(booking -> schedule(booking.id(), booking.start(), booking.createdAt()));
+            loaded += page.size();
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+        } while (page.size() == batchSize);
+        log.info("Loaded {} WAITING bookings into the expiry wheel", loaded);
+    }
+
+    @Override
+    public void accept(List<BookingEvent> events) {
+        events.stream()
+                .filter(event -> event.getStatus() == BookingStatus.WAITING)
+                .forEach(event -> schedule(event.getBookingId(), event.getStart(), event.getCreatedAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.tick:PT1S}",
+            initialDelayString = "${shareit.booking-expiry.tick:PT1S}")
+    public void run() {
+        List<Long> expired;
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), due::add);
+            expired = List.copyOf(due);
+            due.clear();
+        }
+        int total = 0;
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            total += cancel(expired.subList(from, Math.min(from + batchSize, expired.size())), LocalDateTime.now());
+        }
+        if (total > 0) {
+            log.info("Canceled {} WAITING bookings past their deadline", total);
+        }
+    }
+
+    /**
+     * Cancels those of the given bookings that are still WAITING and past their deadline, in one transaction.
+     * Bookings that are not due yet are scheduled again.
+     *
+     * @return the number of bookings canceled
+     */
+    public int cancel(List<Long> bookingIds, LocalDateTime now) {
+        List<Booking> expired = transactionTemplate.execute(status -> {
+            List<Booking> waiting = bookingRepository.findLockedByIdIn(bookingIds).stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
+                    .toList();
+            List<Booking> past = new ArrayList<>();
+            for (Booking booking : waiting) {
+                if (deadline(booking.getStart(), booking.getCreatedAt()).isAfter(now)) {
+                    schedule(booking.getId(), booking.getStart(), booking.getCreatedAt());
+                } else {
+                    booking.setStatus(BookingStatus.CANCELED);
+                    past.add(booking);
+                }
+            }
+            // the dirty bookings are flushed as JDBC batches on commit
+            bookingEventPublisher.publish(past);
+            return past;
+        });
+        if (expired == null) {
+            return 0;
+        }
+        // only committed cancellations reach the in-memory views
+        itemAvailabilityIndex.onBookingsChanged(expired);
+        expired.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemCardCache::evict);
+        canceled.increment(expired.size());
+        return expired.size();
+    }
+
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime createdAt) {
+        long deadline = deadline(start, createdAt).atZone(zone).toInstant().toEpochMilli();
+        synchronized (this) {
+            if (!wheel.add(bookingId, deadline)) {
+                due.add(bookingId);
+            }
+        }
+    }
+
+    private LocalDateTime deadline(LocalDateTime start, LocalDateTime createdAt) {
+        LocalDateTime timedOut = createdAt.plus(timeout);
+        return start.isBefore(timedOut) ? start : timedOut;
+    }
+
+    private synchronized int scheduled() {
+        return wheel.size() + due.size();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.expiry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of ids with deadlines in epoch milliseconds.
+ *
+ * <p>Level 0 has {@code wheelSize} buckets of one tick each; every further level has buckets as wide as
+ * the whole level below, so that far deadlines take a handful of levels instead of one bucket per tick.
+ * Adding is O(1). Advancing one tick expires one bucket of level 0 and, whenever a higher level reaches
+ * a bucket boundary, moves that bucket's entries one level down. Timeouts expire at the end of the tick
+ * their deadline falls in, so at most one tick late and never early.
+ *
+ * <p>Not thread-safe; callers synchronize.
+ */
+class TimingWheel {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<ArrayDeque<Timeout>>> levels = new ArrayList<>();
+    private final List<Long> levelTicks = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - startMillis % tickMillis;
+    }
+
+    /**
+     * Schedules the id.
+     *
+     * @return {@code false} if the deadline has already passed and nothing was scheduled
+     */
+    boolean add(long id, long deadline) {
+        if (deadline < currentTime) {
+            return false;
+        }
+        for (int level = 0; ; level++) {
+            long tick = tick(level);
+            long span = tick > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : tick * wheelSize;
+            if (span == Long.MAX_VALUE || deadline - (currentTime - currentTime % tick) < span) {
+                bucket(level, deadline / tick).add(new Timeout(id, deadline));
+                size++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code now} and passes the ids of all expired timeouts to {@code expired}.
+     */
+    void advanceTo(long now, LongConsumer expired) {
+        while (currentTime + tickMillis <= now) {
+            ArrayDeque<Timeout> due = bucket(0, currentTime / tickMillis);
+            size -= due.size();
+            due.forEach(timeout -> expired.accept(timeout.id()));
+            due.clear();
+            currentTime += tickMillis;
+
+            // from the top down, so that entries moving several levels pass every level on the way
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                long tick = tick(level);
+                if (currentTime % tick != 0) {
+                    continue;
+                }
+                ArrayDeque<Timeout> cascading = bucket(level, currentTime / tick);
+                List<Timeout> moved = List.copyOf(cascading);
+                cascading.clear();
+                size -= moved.size();
+                moved.forEach(timeout -> add(timeout.id(), timeout.deadline()));
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private long tick(int level) {
+        while (levelTicks.size() <= level) {
+            long below = levelTicks.isEmpty() ? tickMillis : levelTicks.get(levelTicks.size() - 1);
+            levelTicks.add(levelTicks.isEmpty() ? tickMillis
+                    : below > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : below * wheelSize);
+        }
+        return levelTicks.get(level);
+    }
+
+    /**
+     * Bucket of the given tick number; levels are created on first use.
+     */
+    private ArrayDeque<Timeout> bucket(int level, long tickNumber) {
+        while (levels.size() <= level) {
+            List<ArrayDeque<Timeout>> buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+        }
+        return levels.get(level).get((int) (tickNumber % wheelSize));
+    }
+
+    private record Timeout(long id, long deadline) {
+    }
+}
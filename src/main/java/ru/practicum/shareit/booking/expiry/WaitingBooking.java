@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.expiry;
+
+import java.time.LocalDateTime;
+
+/**
+ * What {@link BookingExpirer} needs to know of a WAITING booking to schedule its cancellation.
+ */
+public record WaitingBooking(Long id, LocalDateTime start, LocalDateTime createdAt) {
+}
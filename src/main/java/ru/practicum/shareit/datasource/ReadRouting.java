@@ -0,0 +1,94 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Decides, for the current thread, whether read-only transactions may be served by a replica.
+ *
+ * <p>Only reads made for a client go to replicas; {@link ReadYourWritesFilter} binds the client for the
+ * duration of its request. A client that sent a write within the last {@code shareit.replicas.stickiness}
+ * reads from the primary, so that it sees what it wrote. Background jobs have no client and always use
+ * the primary, as does everything inside {@link #onPrimary}.
+ *
+ * <p>A transaction keeps the connection it started with, so the decision is made when a read-only
+ * transaction first touches the database.
+ */
+@Component
+public class ReadRouting {
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWriters;
+    private final ThreadLocal<String> client = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    public ReadRouting(@Value("${shareit.replicas.enabled:false}") boolean enabled,
+                       @Value("${shareit.replicas.stickiness:10s}") Duration stickiness,
+                       @Value("${shareit.replicas.max-sticky-clients:100000}") long maxStickyClients) {
+        this.enabled = enabled;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxStickyClients)
+                .expireAfterWrite(stickiness)
+                .build();
+    }
+
+    /**
+     * Binds {@code client} to the current thread until the returned binding is closed.
+     */
+    public Binding bind(String client) {
+        String previous = this.client.get();
+        this.client.set(client);
+        return () -> {
+            if (previous == null) {
+                this.client.remove();
+            } else {
+                this.client.set(previous);
+            }
+        };
+    }
+
+    public String currentClient() {
+        return client.get();
+    }
+
+    /**
+     * Sends the reads of {@code client} to the primary for the next {@code shareit.replicas.stickiness}.
+     */
+    public void recordWrite(String client) {
+        recentWriters.put(client, Boolean.TRUE);
+    }
+
+    /**
+     * Runs {@code action} with its read-only transactions on the primary, for reads whose result outlives
+     * the request, such as cache loads.
+     */
+    public <T> T onPrimary(Supplier<T> action) {
+        if (primaryOnly.get() != null) {
+            return action.get();
+        }
+        primaryOnly.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            primaryOnly.remove();
+        }
+    }
+
+    /**
+     * Whether a read-only transaction started now on this thread would be sent to a replica.
+     */
+    public boolean readsFromReplica() {
+        String current = client.get();
+        return enabled && current != null && primaryOnly.get() == null
+                && recentWriters.getIfPresent(current) == null;
+    }
+
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Binds the client of a request for {@link ReadRouting}: the {@code X-Sharer-User-Id} or, without the
+ * header, the client address. Any request other than GET, HEAD and OPTIONS counts as a write; it is
+ * recorded when it arrives, so that its own reads and the client's concurrent ones use the primary, and
+ * again when it completes, so that the stickiness window starts after the commit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "shareit.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadRouting readRouting;
+
+    public ReadYourWritesFilter(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID_HEADER);
+        String client = userId != null ? userId : "address:" + request.getRemoteAddr();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            readRouting.recordWrite(client);
+        }
+        try (ReadRouting.Binding ignored = readRouting.bind(client)) {
+            chain.doFilter(request, response);
+        } finally {
+            if (write) {
+                readRouting.recordWrite(client);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single data source with one that sends read-only transactions to {@link ReplicaRoutingDataSource}.
+ *
+ * <p>The proxy hands out a connection handle without touching a pool; the transaction manager marks it
+ * read-only first, and the physical connection is taken from the primary or from the replicas only when
+ * the transaction runs its first statement.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties dataSourceProperties,
+                                                      ReplicaProperties properties,
+                                                      ReadRouting readRouting,
+                                                      MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.instances().size(); i++) {
+            ReplicaProperties.Instance instance = properties.instances().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(instance.url());
+            replica.setUsername(instance.username() != null
+                    ? instance.username() : dataSourceProperties.determineUsername());
+            replica.setPassword(instance.password() != null
+                    ? instance.password() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(instance.maximumPoolSize());
+            replica.setConnectionTimeout(instance.connectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readRouting,
+                properties.maxLag(), properties.lagQuery(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
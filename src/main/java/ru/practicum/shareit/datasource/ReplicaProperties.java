@@ -0,0 +1,38 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas that serve {@code @Transactional(readOnly = true)} work, see {@link ReplicaRoutingDataSource}.
+ *
+ * @param maxLag a replica further behind than this is skipped until it catches up
+ * @param lagQuery returns the replica's lag in seconds; the default is for a PostgreSQL streaming replica,
+ *                 which is not behind when it has replayed everything it received
+ */
+@ConfigurationProperties("shareit.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Instance> instances,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END") String lagQuery) {
+
+    public ReplicaProperties {
+        instances = instances == null ? List.of() : instances;
+    }
+
+    /**
+     * @param username defaults to {@code spring.datasource.username}, as does the password
+     * @param connectionTimeout kept short, so that a replica that is down falls back to the primary quickly
+     */
+    public record Instance(String url,
+                           String username,
+                           String password,
+                           @DefaultValue("10") int maximumPoolSize,
+                           @DefaultValue("1s") Duration connectionTimeout) {
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions. They come from the replicas in turn, skipping those that lag
+ * more than {@code shareit.replicas.max-lag} or failed their last check, and from the primary when
+ * {@link ReadRouting} says so or no replica is usable.
+ *
+ * <p>Replicas are checked every {@code shareit.replicas.check-interval} and count as down until their
+ * first check passes.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadRouting readRouting;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<HikariDataSource> replicas,
+                                    ReadRouting readRouting,
+                                    Duration maxLag,
+                                    String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(Replica::new)
+                .toList();
+        this.readRouting = readRouting;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.replicaReads = counter(meterRegistry, "replica");
+        this.primaryReads = counter(meterRegistry, "primary");
+        this.fallbackReads = counter(meterRegistry, "fallback");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("shareit.replicas.lag", replica, r -> r.lagMillis / 1000.0)
+                    .description("Replication lag seen by the last check, in seconds")
+                    .tag("replica", replica.dataSource.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readRouting.readsFromReplica()) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replicas are only reached with the configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.replicas.check-interval:PT1S}")
+    public void checkReplicas() {
+        replicas.forEach(Replica::check);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("shareit.replicas.reads")
+                .description("Read-only transactions by the data source that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void check() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, maxLagMillis / 1000));
+                try (ResultSet result = statement.executeQuery(lagQuery)) {
+                    result.next();
+                    lagMillis = (long) (result.getDouble(1) * 1000);
+                }
+            } catch (SQLException e) {
+                markDown(e);
+                return;
+            }
+            boolean caughtUp = lagMillis <= maxLagMillis;
+            if (caughtUp != healthy) {
+                log.info("Replica {} is {} ({} ms behind)", dataSource.getPoolName(),
+                        caughtUp ? "back in use" : "lagging and skipped", lagMillis);
+            }
+            healthy = caughtUp;
+        }
+
+        private void markDown(SQLException e) {
+            if (healthy) {
+                log.warn("Replica {} is down, reads fall back to the primary: {}",
+                        dataSource.getPoolName(), e.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.handler;
 
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -36,6 +39,15 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("Validation Error", errorMessage);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolation(ConstraintViolationException ex) {
+        String errorMessage = ex.getConstraintViolations().stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+        return new ErrorResponse("Validation Error", errorMessage);
+    }
+
     @ExceptionHandler(ValidationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidation(ValidationException ex) {
@@ -53,4 +65,16 @@ public class GlobalExceptionHandler {
     public ErrorResponse handleDuplicateEmail(DuplicateEmailException ex) {
         return new ErrorResponse("Conflict", ex.getMessage());
     }
+
+    @ExceptionHandler(BookingConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflict(BookingConflictException ex) {
+        return new ErrorResponse("Conflict", ex.getMessage());
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleConnectionUnavailable(CannotCreateTransactionException ex) {
+        return new ErrorResponse("Service Unavailable", "Нет свободных соединений с базой данных");
+    }
 }
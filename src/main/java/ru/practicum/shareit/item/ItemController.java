@@ -1,23 +1,37 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.availability.ItemAvailabilityService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.NdjsonStreamer;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
     private final ItemService itemService;
     private final ItemMapper itemMapper;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -35,24 +49,55 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemResponseDto> getAllItemsByOwner(
+    public ResponseEntity<List<ItemResponseDto>> getAllItemsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_SIZE) @Positive int size) {
+        return itemService.getAllItemsByOwner(ownerId, cursor, size)
+                .map(itemMapper::toResponseDtos)
+                .toResponseEntity();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllItemsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId) {
-        return itemService.getAllItemsByOwner(ownerId).stream()
-                .map(itemMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return ndjsonStreamer.stream(itemService.streamItemsByOwner(ownerId),
+                itemMapper::toStreamedResponseDtos);
     }
 
     @GetMapping("/{itemId}")
     public ItemResponseDto getItem(@PathVariable Long itemId) {
-        Item item = itemService.getItem(itemId);
-        return itemMapper.toResponseDto(item);
+        return itemMapper.toResponseDto(itemId, itemService::getItem);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(ids, from, to);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text).stream()
-                .map(itemMapper::toDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ItemDto>> searchItems(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_SIZE) @Positive int size) {
+        return itemService.searchItems(text, start, end, cursor, size)
+                .map(items -> items.stream()
+                        .map(itemMapper::toDto)
+                        .collect(Collectors.toList()))
+                .toResponseEntity();
     }
 
     @PostMapping("/{itemId}/comment")
@@ -2,57 +2,98 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.cache.ItemCard;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemSummary;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ItemMapper {
-    private final BookingRepository bookingRepository;
-    private final CommentRepository commentRepository;
+    private final ItemSummaryService itemSummaryService;
+    private final ItemCardCache itemCardCache;
 
-    public ItemResponseDto toResponseDto(Item item) {
-        List<Booking> bookings = bookingRepository.findByItemId(item.getId());
+    public ItemResponseDto toResponseDto(Long itemId, Function<Long, Item> itemLoader) {
         LocalDateTime now = LocalDateTime.now();
+        ItemCard card = itemCardCache.get(itemId, id -> toCard(id, itemLoader, now));
 
-        return ItemResponseDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .lastBooking(getLastBooking(bookings, now))
-                .nextBooking(getNextBooking(bookings, now))
-                .comments(commentRepository.findByItemId(item.getId()).stream()
-                        .map(CommentMapper::toDto)
-                        .collect(Collectors.toList()))
-                .build();
+        if (card.isStale(now)) {
+            card = toCard(itemId, itemLoader, now);
+            itemCardCache.put(card);
+        }
+        return card.toResponseDto();
+    }
+
+    public List<ItemResponseDto> toResponseDtos(List<Item> items) {
+        return toResponseDtos(items, true);
+    }
+
+    /**
+     * Variant for streams, which hold their read-only connection for the whole response: expired summaries
+     * are rebuilt without storing them, as storing would take a second connection per stream and concurrent
+     * streams could exhaust the pool waiting on each other.
+     */
+    public List<ItemResponseDto> toStreamedResponseDtos(List<Item> items) {
+        return toResponseDtos(items, false);
+    }
+
+    private List<ItemResponseDto> toResponseDtos(List<Item> items, boolean storeSummaries) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Item> itemsById = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, ItemCard> cards = new HashMap<>(itemCardCache.getAll(itemsById.keySet(),
+                missingIds -> toCards(missingIds.stream().map(itemsById::get).toList(), now, storeSummaries)));
+
+        List<Item> staleItems = cards.values().stream()
+                .filter(card -> card.isStale(now))
+                .map(card -> itemsById.get(card.getId()))
+                .toList();
+        if (!staleItems.isEmpty()) {
+            toCards(staleItems, now, storeSummaries).values().forEach(card -> {
+                itemCardCache.put(card);
+                cards.put(card.getId(), card);
+            });
+        }
+
+        return items.stream()
+                .map(item -> cards.get(item.getId()).toResponseDto())
+                .collect(Collectors.toList());
     }
 
-    private ItemResponseDto.BookingInfoDto getLastBooking(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                .filter(b -> !b.getStart().isAfter(now))
-                .filter(b -> b.getEnd().isAfter(now))
-                .max(Comparator.comparing(Booking::getEnd))
-                .map(b -> new ItemResponseDto.BookingInfoDto(b.getId(), b.getBooker().getId()))
-                .orElse(null);
+    /**
+     * Reads the item together with its summary in one row; the raw tables are only queried
+     * when the summary is missing or has rolled over.
+     */
+    private ItemCard toCard(Long itemId, Function<Long, Item> itemLoader, LocalDateTime now) {
+        ItemSummary summary = itemSummaryService.findWithItem(itemId).orElse(null);
+        if (summary != null && !summary.isStale(now)) {
+            return ItemCard.of(summary.getItem(), summary);
+        }
+        Item item = summary == null ? itemLoader.apply(itemId) : summary.getItem();
+        return ItemCard.of(item, itemSummaryService.refresh(List.of(item), now).get(itemId));
     }
 
-    private ItemResponseDto.BookingInfoDto getNextBooking(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                .filter(b -> b.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
-                .map(b -> new ItemResponseDto.BookingInfoDto(b.getId(), b.getBooker().getId()))
-                .orElse(null);
+    private Map<Long, ItemCard> toCards(List<Item> items, LocalDateTime now, boolean storeSummaries) {
+        Map<Long, ItemSummary> summaries = storeSummaries
+                ? itemSummaryService.getAll(items, now)
+                : itemSummaryService.getAllWithoutStoring(items, now);
+        return items.stream()
+                .collect(Collectors.toMap(Item::getId, item -> ItemCard.of(item, summaries.get(item.getId()))));
     }
 
     public ItemDto toDto(Item item) {
@@ -61,15 +102,17 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequest() == null ? null : item.getRequest().getId())
                 .build();
     }
 
-    public Item toItem(ItemDto itemDto, Long userId) {
+    public Item toItem(ItemDto itemDto, User owner, ItemRequest request) {
         return Item.builder()
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
-                .owner(User.builder().id(userId).build())
+                .owner(owner)
+                .request(request)
                 .build();
     }
 }
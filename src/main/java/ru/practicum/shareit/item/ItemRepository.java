@@ -1,17 +1,73 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long ownerId);
+    String STREAM_FETCH_SIZE = "500";
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
-            "AND i.available = true")
-    List<Item> search(String text);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findLockedById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findLockedByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Limit limit);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "FROM Item i " +
+            "WHERE i.request.id IN :requestIds")
+    List<ItemAnswerDto> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Item> streamByOwnerIdOrderByIdAsc(Long ownerId);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available = TRUE " +
+            "AND to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(setweight(to_tsvector('simple', i.name), 'A') || " +
+            "setweight(to_tsvector('simple', i.description), 'B'), to_tsquery('simple', :query)) DESC, i.id " +
+            "OFFSET :offset LIMIT :limit", nativeQuery = true)
+    List<Long> fullTextSearch(@Param("query") String query, @Param("offset") long offset, @Param("limit") int limit);
+
+    /**
+     * {@link #fullTextSearch} without the items that have an APPROVED booking overlapping {@code [start, end)}.
+     * The anti-join probes {@code idx_bookings_item_status_start_end} once per matching item, and the
+     * {@code end_date} bound prunes it to the partitions that can overlap.
+     */
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available = TRUE " +
+            "AND to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', :query) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+            "AND b.start_date < :end AND b.end_date > :start) " +
+            "ORDER BY ts_rank(setweight(to_tsvector('simple', i.name), 'A') || " +
+            "setweight(to_tsvector('simple', i.description), 'B'), to_tsquery('simple', :query)) DESC, i.id " +
+            "OFFSET :offset LIMIT :limit", nativeQuery = true)
+    List<Long> fullTextSearchFree(@Param("query") String query,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end,
+                                  @Param("offset") long offset,
+                                  @Param("limit") int limit);
 }
@@ -1,21 +1,39 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,15 +41,31 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemCardCache itemCardCache;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSummaryService itemSummaryService;
 
     public Item addItem(Long userId, ItemDto itemDto) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь с ID " + userId + " не найден"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException("Пользователь с ID " + userId + " не найден");
+        }
+
+        ItemRequest request = null;
+        if (itemDto.getRequestId() != null) {
+            if (!itemRequestRepository.existsById(itemDto.getRequestId())) {
+                throw new EntityNotFoundException("Запрос с ID " + itemDto.getRequestId() + " не найден");
+            }
+            request = itemRequestRepository.getReferenceById(itemDto.getRequestId());
+        }
 
-        Item item = itemMapper.toItem(itemDto, userId);
-        return itemRepository.save(item);
+        Item item = itemRepository.save(itemMapper.toItem(itemDto, userRepository.getReferenceById(userId), request));
+        itemSearchEngine.index(item);
+        return item;
     }
 
     public Item updateItem(Long itemId, Long userId, ItemDto itemDto) throws AccessDeniedException {
@@ -42,11 +76,25 @@ public class ItemService {
         if (itemDto.getDescription() != null) item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
 
-        return itemRepository.save(item);
+        Item updatedItem = itemRepository.save(item);
+        itemSearchEngine.index(updatedItem);
+        itemCardCache.evict(itemId);
+        return updatedItem;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Item> getAllItemsByOwner(Long ownerId, String cursor, int size) {
+        int limit = PageCursor.limit(size);
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                ownerId, PageCursor.decode(cursor), Limit.of(limit + 1));
+        return CursorPage.of(items, limit, Item::getId);
     }
 
-    public List<Item> getAllItemsByOwner(Long ownerId) {
-        return itemRepository.findAllByOwnerId(ownerId);
+    /**
+     * Query behind the streaming variant of {@link #getAllItemsByOwner}; it has to be consumed inside a transaction.
+     */
+    public Supplier<Stream<Item>> streamItemsByOwner(Long ownerId) {
+        return () -> itemRepository.streamByOwnerIdOrderByIdAsc(ownerId);
     }
 
     public Item getItem(Long itemId) {
@@ -54,11 +102,40 @@ public class ItemService {
                 .orElseThrow(() -> new EntityNotFoundException("Вещь с ID " + itemId + " не найдена"));
     }
 
-    public List<Item> searchItems(String text) {
-        if (text.isBlank()) return List.of();
-        return itemRepository.search(text);
+    @Transactional(readOnly = true)
+    public CursorPage<Item> searchItems(String text, String cursor, int size) {
+        return searchItems(text, null, null, cursor, size);
+    }
+
+    /**
+     * Search that, when {@code start} and {@code end} are given, leaves out the items with an APPROVED booking
+     * overlapping {@code [start, end)}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Item> searchItems(String text, LocalDateTime start, LocalDateTime end, String cursor, int size) {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Укажите и начало, и конец периода");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Дата начала должна быть раньше даты окончания");
+        }
+        if (text.isBlank()) return new CursorPage<>(List.of(), null);
+        int limit = PageCursor.limit(size);
+        long offset = PageCursor.decode(cursor);
+
+        List<Long> ids = start == null
+                ? itemSearchEngine.search(text, offset, limit + 1)
+                : itemSearchEngine.searchFree(text, start, end, offset, limit + 1);
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> items = ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return CursorPage.ofOffset(items, limit, offset);
     }
 
+    @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
@@ -70,8 +147,11 @@ public class ItemService {
             throw new ValidationException("Текст комментария не может быть пустым");
         }
 
-        boolean hasBooked = bookingRepository.existsByBookerIdAndItemIdAndEndBefore(
-                userId, itemId, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        boolean hasBooked = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                userId, itemId, BookingStatus.APPROVED, now)
+                || bookingArchiveRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                userId, itemId, BookingStatus.APPROVED, now);
 
         if (!hasBooked) {
             throw new ValidationException("Пользователь не арендовал эту вещь");
@@ -84,6 +164,8 @@ public class ItemService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        itemSummaryService.onCommentAdded(savedComment);
+        itemCardCache.evict(itemId);
         return CommentMapper.toDto(savedComment);
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A WAITING or APPROVED booking as held by {@link ItemAvailabilityIndex}.
+ */
+public record BookedInterval(Long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+    public static BookedInterval of(Booking booking) {
+        return new BookedInterval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Bookings of one item as half-open intervals {@code [start, end)}, in a treap ordered by start and id.
+ * Every node also keeps the latest end in its subtree, so that an overlap query skips the subtrees that
+ * end before the window and finds the {@code k} overlapping bookings in expected {@code O(log n + k)}.
+ *
+ * <p>Adding a booking that is already present replaces it. Not thread-safe; callers synchronize.
+ */
+class IntervalTree {
+    private final Map<Long, Node> byId = new HashMap<>();
+    private Node root;
+
+    void put(BookedInterval interval) {
+        remove(interval.bookingId());
+        Node node = new Node(interval, ThreadLocalRandom.current().nextInt());
+        root = insert(root, node);
+        byId.put(interval.bookingId(), node);
+    }
+
+    void remove(Long bookingId) {
+        Node node = byId.remove(bookingId);
+        if (node != null) {
+            root = delete(root, node.interval);
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Intervals overlapping {@code [from, to)}, in start order.
+     */
+    List<BookedInterval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookedInterval> result = new ArrayList<>();
+        visit(root, from, to, result::add);
+        return result;
+    }
+
+    private static void visit(Node node, LocalDateTime from, LocalDateTime to, Consumer<BookedInterval> consumer) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        visit(node.left, from, to, consumer);
+        if (!node.interval.start().isBefore(to)) {
+            // everything to the right starts even later
+            return;
+        }
+        if (node.interval.end().isAfter(from)) {
+            consumer.accept(node.interval);
+        }
+        visit(node.right, from, to, consumer);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (precedes(inserted.interval, node.interval)) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, BookedInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        if (node.interval.bookingId().equals(interval.bookingId())) {
+            return merge(node.left, node.right);
+        }
+        if (precedes(interval, node.interval)) {
+            node.left = delete(node.left, interval);
+        } else {
+            node.right = delete(node.right, interval);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static boolean precedes(BookedInterval first, BookedInterval second) {
+        int byStart = first.start().compareTo(second.start());
+        return byStart < 0 || (byStart == 0 && first.bookingId() < second.bookingId());
+    }
+
+    private static final class Node {
+        private final BookedInterval interval;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(BookedInterval interval, int priority) {
+            this.interval = interval;
+            this.priority = priority;
+            this.maxEnd = interval.end();
+        }
+
+        private void update() {
+            maxEnd = interval.end();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
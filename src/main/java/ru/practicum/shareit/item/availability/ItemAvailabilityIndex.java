@@ -0,0 +1,177 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.datasource.ReadRouting;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * WAITING and APPROVED bookings per item, held in an {@link IntervalTree} per item, so that availability
+ * reads of a cached item do not touch the database.
+ *
+ * <p>A tree is loaded with the bookings that had not ended at load time, so it only answers for the time
+ * from then on. {@code BookingService} and the expiry apply every booking change once its transaction has
+ * committed, to the trees that are loaded; trees are reloaded every
+ * {@code shareit.availability.expire-after-write} to drop ended bookings.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private static final Set<BookingStatus> HELD = Set.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ReadRouting readRouting;
+    private final Cache<Long, IntervalTree> trees;
+    private final AtomicLong changes = new AtomicLong();
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 ItemRepository itemRepository,
+                                 ReadRouting readRouting,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.availability.maximum-items:10000}") long maximumItems,
+                                 @Value("${shareit.availability.expire-after-write:1h}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.readRouting = readRouting;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maximumItems)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trees, "itemAvailability");
+    }
+
+    /**
+     * WAITING and APPROVED bookings of the item that overlap {@code [from, to)}, in start order.
+     */
+    public List<BookedInterval> find(Long itemId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree tree = trees.get(itemId, this::load);
+        synchronized (tree) {
+            return tree.overlapping(from, to);
+        }
+    }
+
+    /**
+     * Same as {@link #find} for several items; the items that are not loaded yet are read in one query.
+     */
+    public Map<Long, List<BookedInterval>> findAll(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Set<Long> missing = new HashSet<>(itemIds);
+        missing.removeAll(trees.getAllPresent(itemIds).keySet());
+        if (!missing.isEmpty()) {
+            prefetch(missing);
+        }
+
+        Map<Long, List<BookedInterval>> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            result.put(itemId, find(itemId, from, to));
+        }
+        return result;
+    }
+
+    /**
+     * Applies the current state of the bookings to the loaded trees, after the surrounding transaction commits.
+     */
+    public void onBookingsChanged(Collection<Booking> bookings) {
+        Map<Long, List<BookedInterval>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        Collectors.mapping(BookedInterval::of, Collectors.toList())));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(byItem);
+                }
+            });
+        } else {
+            apply(byItem);
+        }
+    }
+
+    /**
+     * Drops every tree, for changes that cannot be followed booking by booking, such as cascading deletes.
+     */
+    public void evictAll() {
+        trees.invalidateAll();
+    }
+
+    private void apply(Map<Long, List<BookedInterval>> byItem) {
+        // a bulk load that began before this point does not cache what it read, see prefetch
+        changes.incrementAndGet();
+        // computeIfPresent waits for a load of the same item in progress, which may have read the state
+        // from before the commit
+        byItem.forEach((itemId, intervals) -> trees.asMap().computeIfPresent(itemId, (id, tree) -> {
+            synchronized (tree) {
+                for (BookedInterval interval : intervals) {
+                    if (HELD.contains(interval.status())) {
+                        tree.put(interval);
+                    } else {
+                        tree.remove(interval.bookingId());
+                    }
+                }
+            }
+            return tree;
+        }));
+    }
+
+    /**
+     * Trees are kept current by booking changes from then on, so they are read from the primary, never
+     * from a replica that may not have the latest changes yet.
+     */
+    private IntervalTree load(Long itemId) {
+        return readRouting.onPrimary(() -> {
+            if (!itemRepository.existsById(itemId)) {
+                throw new EntityNotFoundException("Вещь не найдена");
+            }
+            return toTree(bookingRepository.findByItemIdInAndStatusInAndEndAfter(
+                    List.of(itemId), HELD, LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Loads the trees of several items with one query. Unlike {@link #load}, the query runs outside the
+     * cache's per-item lock, so its result is only cached if no booking change was applied meanwhile;
+     * otherwise the items are left to be loaded one by one.
+     */
+    private void prefetch(Set<Long> itemIds) {
+        long before = changes.get();
+        Map<Long, List<Booking>> bookingsByItem = readRouting.onPrimary(() -> bookingRepository
+                .findByItemIdInAndStatusInAndEndAfter(itemIds, HELD, LocalDateTime.now())).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        List<Long> existing = readRouting.onPrimary(() -> itemRepository.findIdsByIdIn(itemIds));
+        if (existing.size() < itemIds.size()) {
+            throw new EntityNotFoundException("Вещь не найдена");
+        }
+        for (Long itemId : existing) {
+            trees.get(itemId, id -> changes.get() == before
+                    ? toTree(bookingsByItem.getOrDefault(id, List.of()))
+                    : load(id));
+        }
+    }
+
+    private static IntervalTree toTree(List<Booking> bookings) {
+        IntervalTree tree = new IntervalTree();
+        bookings.forEach(booking -> tree.put(BookedInterval.of(booking)));
+        return tree;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Free and busy intervals of items, computed from {@link ItemAvailabilityIndex}. Periods start now at the
+ * earliest: the index does not keep bookings that have ended.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemAvailabilityService {
+    public static final int MAX_ITEMS = 100;
+    private static final Duration DEFAULT_PERIOD = Duration.ofDays(30);
+
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Period period = Period.of(from, to);
+        return toDto(itemId, period, itemAvailabilityIndex.find(itemId, period.from(), period.to()));
+    }
+
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        if (itemIds.size() > MAX_ITEMS) {
+            throw new ValidationException("Можно запросить не больше " + MAX_ITEMS + " вещей");
+        }
+        Period period = Period.of(from, to);
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(itemIds));
+        Map<Long, List<BookedInterval>> bookings = itemAvailabilityIndex.findAll(distinct, period.from(), period.to());
+        return distinct.stream()
+                .map(itemId -> toDto(itemId, period, bookings.get(itemId)))
+                .toList();
+    }
+
+    private static ItemAvailabilityDto toDto(Long itemId, Period period, List<BookedInterval> bookings) {
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(period.from())
+                .to(period.to())
+                .intervals(toIntervals(period, bookings))
+                .build();
+    }
+
+    /**
+     * Sweeps over the booking boundaries, counting the approved and waiting bookings in effect, and merges
+     * neighbouring intervals of the same status.
+     */
+    private static List<IntervalDto> toIntervals(Period period, List<BookedInterval> bookings) {
+        TreeMap<LocalDateTime, int[]> deltas = new TreeMap<>();
+        for (BookedInterval booking : bookings) {
+            int kind = booking.status() == BookingStatus.APPROVED ? 0 : 1;
+            LocalDateTime start = booking.start().isBefore(period.from()) ? period.from() : booking.start();
+            LocalDateTime end = booking.end().isAfter(period.to()) ? period.to() : booking.end();
+            deltas.computeIfAbsent(start, time -> new int[2])[kind]++;
+            deltas.computeIfAbsent(end, time -> new int[2])[kind]--;
+        }
+        deltas.putIfAbsent(period.to(), new int[2]);
+
+        List<IntervalDto> intervals = new ArrayList<>();
+        LocalDateTime start = period.from();
+        int approved = 0;
+        int waiting = 0;
+        for (Map.Entry<LocalDateTime, int[]> delta : deltas.entrySet()) {
+            if (delta.getKey().isAfter(start)) {
+                Status status = approved > 0 ? Status.BOOKED : waiting > 0 ? Status.REQUESTED : Status.FREE;
+                IntervalDto last = intervals.isEmpty() ? null : intervals.get(intervals.size() - 1);
+                if (last != null && last.getStatus() == status) {
+                    last.setEnd(delta.getKey());
+                } else {
+                    intervals.add(new IntervalDto(start, delta.getKey(), status));
+                }
+                start = delta.getKey();
+            }
+            approved += delta.getValue()[0];
+            waiting += delta.getValue()[1];
+        }
+        return intervals;
+    }
+
+    private record Period(LocalDateTime from, LocalDateTime to) {
+        static Period of(LocalDateTime from, LocalDateTime to) {
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+            LocalDateTime end = to == null ? start.plus(DEFAULT_PERIOD) : to;
+            if (!end.isAfter(start)) {
+                throw new ValidationException("Конец периода должен быть позже его начала и текущего времени");
+            }
+            return new Period(start, end);
+        }
+    }
+}
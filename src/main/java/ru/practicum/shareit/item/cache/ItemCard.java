@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cached view of an item. The last and next bookings are kept with their dates so that
+ * the card knows the moment they stop being last/next as time passes.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemCard {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final ItemBookingDto lastBooking;
+    private final ItemBookingDto nextBooking;
+    private final long commentCount;
+    private final List<CommentDto> comments;
+
+    public static ItemCard of(Item item, ItemSummary summary) {
+        return new ItemCard(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                summary.getLastBooking(), summary.getNextBooking(),
+                summary.getCommentCount(), List.copyOf(summary.getLatestComments()));
+    }
+
+    /**
+     * Last booking changes when it ends, next booking changes when it starts.
+     * Any other change comes from a write, which evicts the card.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return (lastBooking != null && !now.isBefore(lastBooking.getEnd()))
+                || (nextBooking != null && !now.isBefore(nextBooking.getStart()));
+    }
+
+    public ItemResponseDto toResponseDto() {
+        return ItemResponseDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .lastBooking(lastBooking == null ? null : lastBooking.toInfoDto())
+                .nextBooking(nextBooking == null ? null : nextBooking.toInfoDto())
+                .commentCount(commentCount)
+                .comments(comments)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.datasource.ReadRouting;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of assembled item cards keyed by item id.
+ * Writes that change what a card shows evict it with {@link #evict(Long)}.
+ * Cards assembled while reads go to a replica are returned but not cached: the replica may not have
+ * applied the write behind the latest eviction yet.
+ */
+@Component
+public class ItemCardCache {
+    private final Cache<Long, ItemCard> cache;
+    private final ReadRouting readRouting;
+
+    public ItemCardCache(MeterRegistry meterRegistry,
+                         ReadRouting readRouting,
+                         @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.item-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemCards");
+        this.readRouting = readRouting;
+    }
+
+    public ItemCard get(Long itemId, Function<Long, ItemCard> loader) {
+        if (readRouting.readsFromReplica()) {
+            ItemCard card = cache.getIfPresent(itemId);
+            return card != null ? card : loader.apply(itemId);
+        }
+        return cache.get(itemId, loader);
+    }
+
+    public Map<Long, ItemCard> getAll(Collection<Long> itemIds,
+                                      Function<Set<? extends Long>, Map<Long, ItemCard>> loader) {
+        if (readRouting.readsFromReplica()) {
+            Map<Long, ItemCard> cards = new HashMap<>(cache.getAllPresent(itemIds));
+            Set<Long> missing = new HashSet<>(itemIds);
+            missing.removeAll(cards.keySet());
+            if (!missing.isEmpty()) {
+                cards.putAll(loader.apply(missing));
+            }
+            return cards;
+        }
+        return cache.getAll(itemIds, loader);
+    }
+
+    public void put(ItemCard card) {
+        if (!readRouting.readsFromReplica()) {
+            cache.put(card.getId(), card);
+        }
+    }
+
+    /**
+     * Evicts the card now and, inside a transaction, once more after commit so that a
+     * concurrent read cannot re-cache the state from before the write.
+     */
+    public void evict(Long itemId) {
+        cache.invalidate(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(itemId);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
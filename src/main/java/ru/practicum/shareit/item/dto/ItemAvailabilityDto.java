@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Calendar of an item over {@code [from, to)}: consecutive intervals covering the whole period.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<IntervalDto> intervals;
+
+    public enum Status {
+        /**
+         * No booking.
+         */
+        FREE,
+        /**
+         * Only bookings the owner has not decided on yet; the item can still be requested.
+         */
+        REQUESTED,
+        /**
+         * An approved booking.
+         */
+        BOOKED
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class IntervalDto {
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private Status status;
+    }
+}
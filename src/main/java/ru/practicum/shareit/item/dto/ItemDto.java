@@ -18,4 +18,6 @@ public class ItemDto {
 
     @NotNull(message = "Статус доступности обязателен")
     private Boolean available;
+
+    private Long requestId;
 }
@@ -15,6 +15,7 @@ public class ItemResponseDto {
     private Boolean available;
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 
     @Setter
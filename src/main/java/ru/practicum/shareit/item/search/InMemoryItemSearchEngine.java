@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index for databases without full-text support (H2).
+ * Filled from the items table on startup and kept current through {@link #index(Item)}.
+ * Searches for free items walk the ranked matches and check them against the bookings in batches,
+ * until the requested page is filled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int FREE_CHECK_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long afterId = 0;
+        int indexed = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(SEED_BATCH_SIZE));
+            batch.forEach(this::index);
+            indexed += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == SEED_BATCH_SIZE);
+        log.info("Search index built for {} items", indexed);
+    }
+
+    @Override
+    public List<Long> search(String text, long offset, int limit) {
+        return rank(text).stream()
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, long offset, int limit) {
+        List<Long> ranked = rank(text);
+        List<Long> free = new ArrayList<>();
+        for (int from = 0; from < ranked.size() && free.size() < offset + limit; from += FREE_CHECK_BATCH_SIZE) {
+            List<Long> candidates = ranked.subList(from, Math.min(from + FREE_CHECK_BATCH_SIZE, ranked.size()));
+            Set<Long> booked = Set.copyOf(bookingRepository.findBookedItemIds(candidates, start, end));
+            candidates.stream()
+                    .filter(itemId -> !booked.contains(itemId))
+                    .forEach(free::add);
+        }
+        return free.stream()
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        Map<String, Integer> weights = new HashMap<>();
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            SearchTokenizer.tokenize(item.getDescription()).forEach(token -> weights.put(token, DESCRIPTION_WEIGHT));
+            SearchTokenizer.tokenize(item.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = tokensByItem.remove(item.getId());
+            if (previous != null) {
+                previous.forEach(token -> {
+                    Map<Long, Integer> items = postings.get(token);
+                    items.remove(item.getId());
+                    if (items.isEmpty()) {
+                        postings.remove(token);
+                    }
+                });
+            }
+            if (!weights.isEmpty()) {
+                weights.forEach((token, weight) ->
+                        postings.computeIfAbsent(token, t -> new HashMap<>()).put(item.getId(), weight));
+                tokensByItem.put(item.getId(), weights.keySet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of all items matching every word of {@code text}, best match first, ties broken by id.
+     */
+    private List<Long> rank(String text) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Integer> matches = prefixMatches(token);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((itemId, score) -> score + matches.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Best weight per item among all indexed words starting with {@code prefix}.
+     */
+    private Map<Long, Integer> prefixMatches(String prefix) {
+        Map<Long, Integer> matches = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                .forEach(items -> items.forEach((itemId, weight) -> matches.merge(itemId, weight, Math::max)));
+        return matches;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Backend for {@code GET /items/search}. Only available items are returned.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Returns ids of items that match every word of {@code text} (as a word prefix),
+     * best match first, ties broken by id.
+     */
+    List<Long> search(String text, long offset, int limit);
+
+    /**
+     * Same as {@link #search(String, long, int)}, leaving out the items that have an APPROVED booking
+     * overlapping {@code [start, end)}.
+     */
+    List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, long offset, int limit);
+
+    /**
+     * Called after an item has been created or updated.
+     */
+    void index(Item item);
+}
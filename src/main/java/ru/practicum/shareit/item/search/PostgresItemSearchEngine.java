@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over the {@code idx_items_search} GIN index (see db/migration/postgresql).
+ * Words are matched as prefixes and ranked with name matches above description matches.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, long offset, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.fullTextSearch(toQuery(tokens), offset, limit);
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, long offset, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.fullTextSearchFree(toQuery(tokens), start, end, offset, limit);
+    }
+
+    @Override
+    public void index(Item item) {
+        // the GIN index is maintained by PostgreSQL itself
+    }
+
+    private static String toQuery(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+final class SearchTokenizer {
+    private static final String SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    private SearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(SEPARATORS))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
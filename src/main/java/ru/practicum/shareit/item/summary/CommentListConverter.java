@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.summary;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the latest comments of an item summary as a JSON array in a text column.
+ */
+@Converter
+public class CommentListConverter implements AttributeConverter<List<CommentDto>, String> {
+    private static final TypeReference<List<CommentDto>> COMMENT_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public CommentListConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments == null ? List.of() : comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать комментарии", e);
+        }
+    }
+
+    @Override
+    public List<CommentDto> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(objectMapper.readValue(json, COMMENT_LIST));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать комментарии", e);
+        }
+    }
+}
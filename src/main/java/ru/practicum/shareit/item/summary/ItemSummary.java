@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized read model of what an item view shows besides the item itself. The booking columns
+ * are copies without foreign keys; {@code validUntil} is the moment the last or next booking rolls over.
+ */
+@Entity
+@Table(name = "item_summaries")
+@Data
+@NoArgsConstructor
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Convert(converter = CommentListConverter.class)
+    @Column(name = "latest_comments", nullable = false)
+    private List<CommentDto> latestComments = new ArrayList<>();
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @Version
+    private long version;
+
+    public ItemBookingDto getLastBooking() {
+        return lastBookingId == null ? null
+                : new ItemBookingDto(itemId, lastBookingId, lastBookerId, lastStart, lastEnd);
+    }
+
+    public ItemBookingDto getNextBooking() {
+        return nextBookingId == null ? null
+                : new ItemBookingDto(itemId, nextBookingId, nextBookerId, nextStart, nextEnd);
+    }
+
+    public void setBookings(ItemBookingDto last, ItemBookingDto next) {
+        lastBookingId = last == null ? null : last.getId();
+        lastBookerId = last == null ? null : last.getBookerId();
+        lastStart = last == null ? null : last.getStart();
+        lastEnd = last == null ? null : last.getEnd();
+        nextBookingId = next == null ? null : next.getId();
+        nextBookerId = next == null ? null : next.getBookerId();
+        nextStart = next == null ? null : next.getStart();
+        nextEnd = next == null ? null : next.getEnd();
+
+        if (lastEnd == null || (nextStart != null && nextStart.isBefore(lastEnd))) {
+            validUntil = nextStart;
+        } else {
+            validUntil = lastEnd;
+        }
+    }
+
+    public boolean isStale(LocalDateTime now) {
+        return validUntil != null && !now.isBefore(validUntil);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventConsumer;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rebuilds the summaries expired by new bookings, so that item reads find them up to date again.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSummaryEventConsumer implements BookingEventConsumer {
+    private final ItemSummaryService itemSummaryService;
+
+    @Override
+    public void accept(List<BookingEvent> events) {
+        List<Long> itemIds = events.stream()
+                .filter(event -> event.getStatus() == BookingStatus.WAITING)
+                .map(BookingEvent::getItemId)
+                .distinct()
+                .toList();
+        if (!itemIds.isEmpty()) {
+            itemSummaryService.refreshExpired(itemIds, LocalDateTime.now());
+        }
+    }
+}
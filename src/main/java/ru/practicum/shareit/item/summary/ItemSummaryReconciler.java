@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.summary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background upkeep of item summaries. Each run rebuilds the summaries whose last or next booking has rolled
+ * over, then compares the next window of items with the raw tables, so that every summary is checked once
+ * per full pass over the items table.
+ */
+@Slf4j
+@Component
+public class ItemSummaryReconciler {
+    private final ItemSummaryService itemSummaryService;
+    private final ItemRepository itemRepository;
+    private final Counter drift;
+    private final int batchSize;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public ItemSummaryReconciler(ItemSummaryService itemSummaryService,
+                                 ItemRepository itemRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.item-summary.reconcile-batch-size:500}") int batchSize) {
+        this.itemSummaryService = itemSummaryService;
+        this.itemRepository = itemRepository;
+        this.drift = Counter.builder("shareit.item-summary.drift")
+                .description("Item summaries that differed from the bookings and comments tables")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-summary.reconcile-interval:PT5M}",
+            initialDelayString = "${shareit.item-summary.reconcile-interval:PT5M}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = itemSummaryService.refreshExpired(now, batchSize);
+        if (refreshed == batchSize) {
+            log.info("Refreshed {} expired item summaries, the rest is left to reads and the next run", refreshed);
+        }
+
+        int drifted = reconcileNextWindow(now);
+        if (drifted > 0) {
+            log.warn("Rewrote {} drifted item summaries", drifted);
+        }
+    }
+
+    int reconcileNextWindow(LocalDateTime now) {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(cursor.get(), Limit.of(batchSize));
+        cursor.set(items.size() < batchSize ? 0 : items.get(items.size() - 1).getId());
+
+        int drifted = itemSummaryService.reconcile(items, now);
+        drift.increment(drifted);
+        return drifted;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    @Query("SELECT s FROM ItemSummary s JOIN FETCH s.item WHERE s.itemId = :itemId")
+    Optional<ItemSummary> findWithItemByItemId(@Param("itemId") Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemSummary s WHERE s.itemId IN :itemIds ORDER BY s.itemId")
+    List<ItemSummary> findLockedByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT s.itemId FROM ItemSummary s WHERE s.validUntil <= :now ORDER BY s.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT s.itemId FROM ItemSummary s WHERE s.itemId IN :itemIds AND s.validUntil <= :now")
+    List<Long> findExpiredItemIdsIn(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ItemSummary s SET s.validUntil = :now, s.version = s.version + 1 WHERE s.itemId IN :itemIds")
+    int expire(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Expires the summaries that show a booking or a comment of the user, before the user's rows are deleted.
+     */
+    @Modifying
+    @Query("UPDATE ItemSummary s SET s.validUntil = :now, s.version = s.version + 1 " +
+            "WHERE s.lastBookerId = :userId " +
+            "OR s.nextBookerId = :userId " +
+            "OR s.itemId IN (SELECT c.item.id FROM Comment c WHERE c.author.id = :userId)")
+    int expireForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
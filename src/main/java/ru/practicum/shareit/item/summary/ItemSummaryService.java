@@ -0,0 +1,282 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemSummary} rows.
+ *
+ * <p>Comment writes update the summary of their item in the same transaction; booking writes expire it
+ * and {@link ItemSummaryEventConsumer} rebuilds it from the booking events. Reads rebuild a summary from
+ * the raw tables when it is missing or expired, and {@link ItemSummaryReconciler} repairs whatever
+ * drifted in between.
+ */
+@Slf4j
+@Service
+public class ItemSummaryService {
+    private static final BinaryOperator<ItemBookingDto> FIRST_BY_ID =
+            BinaryOperator.minBy(Comparator.comparing(ItemBookingDto::getId));
+
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate newTransaction;
+    private final int latestComments;
+
+    public ItemSummaryService(ItemSummaryRepository itemSummaryRepository,
+                              ItemRepository itemRepository,
+                              BookingRepository bookingRepository,
+                              CommentRepository commentRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${shareit.item-summary.latest-comments:20}") int latestComments) {
+        this.itemSummaryRepository = itemSummaryRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.latestComments = latestComments;
+    }
+
+    /**
+     * Summary of one item together with the item, in a single row lookup.
+     */
+    public Optional<ItemSummary> findWithItem(Long itemId) {
+        return itemSummaryRepository.findWithItemByItemId(itemId);
+    }
+
+    /**
+     * Up-to-date summaries of the given items; missing and expired ones are rebuilt.
+     */
+    public Map<Long, ItemSummary> getAll(List<Item> items, LocalDateTime now) {
+        return getAll(items, now, outdated -> refresh(outdated, now));
+    }
+
+    /**
+     * Like {@link #getAll(List, LocalDateTime)}, but missing and expired summaries are rebuilt in the caller's
+     * transaction and not stored, so no second connection is taken. Meant for reads that hold their connection
+     * for long, such as streams; {@link ItemSummaryReconciler} stores the rebuilt summaries later.
+     */
+    public Map<Long, ItemSummary> getAllWithoutStoring(List<Item> items, LocalDateTime now) {
+        return getAll(items, now, outdated -> rebuild(outdated, now));
+    }
+
+    private Map<Long, ItemSummary> getAll(List<Item> items, LocalDateTime now,
+                                          Function<List<Item>, Map<Long, ItemSummary>> rebuildOutdated) {
+        Map<Long, ItemSummary> summaries = itemSummaryRepository.findAllById(items.stream()
+                        .map(Item::getId)
+                        .toList()).stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+
+        List<Item> outdated = items.stream()
+                .filter(item -> !summaries.containsKey(item.getId()) || summaries.get(item.getId()).isStale(now))
+                .toList();
+        if (!outdated.isEmpty()) {
+            summaries.putAll(rebuildOutdated.apply(outdated));
+        }
+        return summaries;
+    }
+
+    /**
+     * Rebuilds the summaries from the raw tables and stores them in a transaction of their own, so that
+     * reads inside read-only transactions can refresh them too. If another request inserts the same summary
+     * first, its row is kept and the rebuilt values are only returned.
+     */
+    public Map<Long, ItemSummary> refresh(List<Item> items, LocalDateTime now) {
+        try {
+            return newTransaction.execute(status -> {
+                Map<Long, ItemSummary> stored = lockSummaries(items.stream().map(Item::getId).toList());
+                Map<Long, ItemSummary> rebuilt = rebuild(items, now);
+                store(rebuilt.values(), stored);
+                return rebuilt;
+            });
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            log.debug("Item summaries of {} were written concurrently", items.stream().map(Item::getId).toList());
+            return rebuild(items, now);
+        }
+    }
+
+    /**
+     * Expires the summaries of booked items in the booking transaction. Reads rebuild them from then on,
+     * until {@link ItemSummaryEventConsumer} refreshes them from the booking events.
+     */
+    @Transactional
+    public void onBookingsCreated(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            itemSummaryRepository.expire(itemIds, LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    public void onCommentAdded(Comment comment) {
+        Long itemId = comment.getItem().getId();
+        List<ItemSummary> locked = itemSummaryRepository.findLockedByItemIdIn(List.of(itemId));
+        if (locked.isEmpty()) {
+            return;
+        }
+        ItemSummary summary = locked.get(0);
+        List<CommentDto> comments = new ArrayList<>(summary.getLatestComments());
+        comments.add(CommentMapper.toDto(comment));
+        if (comments.size() > latestComments) {
+            comments = new ArrayList<>(comments.subList(comments.size() - latestComments, comments.size()));
+        }
+        summary.setLatestComments(comments);
+        summary.setCommentCount(summary.getCommentCount() + 1);
+        summary.setRefreshedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Expires the summaries that show the user's bookings or comments, which are about to be deleted.
+     */
+    @Transactional
+    public void onUserDeleted(Long userId) {
+        itemSummaryRepository.expireForUser(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Rebuilds the summaries whose last or next booking has rolled over.
+     *
+     * @return the number of summaries refreshed
+     */
+    public int refreshExpired(LocalDateTime now, int limit) {
+        List<Long> itemIds = itemSummaryRepository.findExpiredItemIds(now, Limit.of(limit));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return refresh(itemRepository.findAllById(itemIds), now).size();
+    }
+
+    /**
+     * Rebuilds the summaries of the given items that are expired.
+     *
+     * @return the number of summaries refreshed
+     */
+    public int refreshExpired(Collection<Long> itemIds, LocalDateTime now) {
+        List<Long> expired = itemSummaryRepository.findExpiredItemIdsIn(itemIds, now);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        return refresh(itemRepository.findAllById(expired), now).size();
+    }
+
+    /**
+     * Compares the stored summaries of the given items with the raw tables and rewrites the ones that drifted.
+     * Missing summaries are created along the way but are not counted as drift.
+     *
+     * @return the number of stored summaries that had drifted
+     */
+    public int reconcile(List<Item> items, LocalDateTime now) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        Integer drifted = newTransaction.execute(status -> {
+            // rebuilt under the row locks, so that writes committed meanwhile are not reverted
+            Map<Long, ItemSummary> stored = lockSummaries(items.stream().map(Item::getId).toList());
+            Map<Long, ItemSummary> rebuilt = rebuild(items, now);
+            List<ItemSummary> changed = rebuilt.values().stream()
+                    .filter(fresh -> !sameContent(fresh, stored.get(fresh.getItemId())))
+                    .toList();
+            store(changed, stored);
+            return (int) changed.stream()
+                    .filter(fresh -> stored.containsKey(fresh.getItemId()))
+                    .count();
+        });
+        return drifted == null ? 0 : drifted;
+    }
+
+    private Map<Long, ItemSummary> lockSummaries(Collection<Long> itemIds) {
+        return itemSummaryRepository.findLockedByItemIdIn(itemIds.stream().distinct().sorted().toList()).stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+    }
+
+    /**
+     * Writes rebuilt values over the stored rows, inserting the rows that do not exist yet.
+     */
+    private void store(Collection<ItemSummary> rebuilt, Map<Long, ItemSummary> stored) {
+        List<ItemSummary> inserted = new ArrayList<>();
+        for (ItemSummary fresh : rebuilt) {
+            ItemSummary summary = stored.get(fresh.getItemId());
+            if (summary == null) {
+                summary = new ItemSummary();
+                summary.setItem(itemRepository.getReferenceById(fresh.getItemId()));
+                inserted.add(summary);
+            }
+            copy(fresh, summary);
+        }
+        itemSummaryRepository.saveAll(inserted);
+    }
+
+    private Map<Long, ItemSummary> rebuild(List<Item> items, LocalDateTime now) {
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, ItemBookingDto> lastByItem = bookingRepository.findLastBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingDto::getItemId, b -> b, FIRST_BY_ID));
+        Map<Long, ItemBookingDto> nextByItem = bookingRepository.findNextBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingDto::getItemId, b -> b, FIRST_BY_ID));
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findByItemIdIn(itemIds).stream()
+                .sorted(Comparator.comparing(Comment::getId))
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+
+        Map<Long, ItemSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<Comment> comments = commentsByItem.getOrDefault(itemId, List.of());
+            ItemSummary summary = new ItemSummary();
+            summary.setItemId(itemId);
+            summary.setBookings(lastByItem.get(itemId), nextByItem.get(itemId));
+            summary.setCommentCount(comments.size());
+            summary.setLatestComments(comments.subList(Math.max(0, comments.size() - latestComments), comments.size())
+                    .stream()
+                    .map(CommentMapper::toDto)
+                    .collect(Collectors.toCollection(ArrayList::new)));
+            summary.setRefreshedAt(now);
+            summaries.put(itemId, summary);
+        }
+        return summaries;
+    }
+
+    private static void copy(ItemSummary from, ItemSummary to) {
+        to.setBookings(from.getLastBooking(), from.getNextBooking());
+        to.setCommentCount(from.getCommentCount());
+        to.setLatestComments(from.getLatestComments());
+        to.setRefreshedAt(from.getRefreshedAt());
+    }
+
+    private static boolean sameContent(ItemSummary fresh, ItemSummary stored) {
+        return stored != null
+                && Objects.equals(fresh.getLastBookingId(), stored.getLastBookingId())
+                && Objects.equals(fresh.getNextBookingId(), stored.getNextBookingId())
+                && Objects.equals(fresh.getValidUntil(), stored.getValidUntil())
+                && fresh.getCommentCount() == stored.getCommentCount()
+                && Objects.equals(fresh.getLatestComments().stream().map(CommentDto::getId).toList(),
+                stored.getLatestComments().stream().map(CommentDto::getId).toList());
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    /**
+     * Builds a page from rows fetched with {@code size + 1} as the limit: the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> position) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, PageCursor.encode(position.apply(content.get(size - 1))));
+    }
+
+    /**
+     * Same as {@link #of} for result sets that can only be addressed by row offset,
+     * such as relevance-ranked search.
+     */
+    public static <T> CursorPage<T> ofOffset(List<T> rows, int size, long offset) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, size), PageCursor.encode(offset + size));
+    }
+
+    public <R> CursorPage<R> map(Function<List<T>, List<R>> mapper) {
+        return new CursorPage<>(mapper.apply(content), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(PageCursor.HEADER, nextCursor);
+        }
+        return response.body(content);
+    }
+}
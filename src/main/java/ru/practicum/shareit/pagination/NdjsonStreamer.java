@@ -0,0 +1,92 @@
+package ru.practicum.shareit.pagination;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.datasource.ReadRouting;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a query result as newline-delimited JSON while it is being read.
+ *
+ * <p>The query is opened in a read-only transaction on the async request thread. Rows are mapped and
+ * written in chunks, and the persistence context is cleared after each chunk, so memory stays bounded by
+ * the chunk size rather than by the size of the result. The request's client is carried over to that
+ * thread, so that {@link ReadRouting} routes the query as it would on the request thread.
+ */
+@Component
+public class NdjsonStreamer {
+    public static final int CHUNK_SIZE = 500;
+
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
+    private final ReadRouting readRouting;
+
+    public NdjsonStreamer(ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          EntityManager entityManager,
+                          ReadRouting readRouting) {
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.readRouting = readRouting;
+    }
+
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> query,
+                                                               Function<List<T>, List<R>> mapper) {
+        String client = readRouting.currentClient();
+        StreamingResponseBody body = out -> {
+            try (ReadRouting.Binding ignored = readRouting.bind(client)) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get()) {
+                        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+                        rows.forEach(row -> {
+                            chunk.add(row);
+                            if (chunk.size() == CHUNK_SIZE) {
+                                write(mapper.apply(chunk), out);
+                                chunk.clear();
+                            }
+                        });
+                        write(mapper.apply(chunk), out);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <R> void write(List<R> values, OutputStream out) {
+        try {
+            for (R value : values) {
+                writer.writeValue(out, value);
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entityManager.clear();
+    }
+}
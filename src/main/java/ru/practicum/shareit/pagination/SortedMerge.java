@@ -0,0 +1,69 @@
+package ru.practicum.shareit.pagination;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges results of the same query over two tables, each already sorted in {@code order}.
+ */
+public final class SortedMerge {
+    private SortedMerge() {
+    }
+
+    /**
+     * Rows {@code [offset, offset + size)} of the merged order; both lists have to start at row 0
+     * and hold at least {@code offset + size} rows when that many exist.
+     */
+    public static <T> List<T> page(List<T> first, List<T> second, Comparator<? super T> order,
+                                   long offset, int size) {
+        return merge(first.stream(), second.stream(), order)
+                .skip(offset)
+                .limit(size)
+                .toList();
+    }
+
+    /**
+     * Lazily merged stream; closing it closes both sources.
+     */
+    public static <T> Stream<T> merge(Stream<T> first, Stream<T> second, Comparator<? super T> order) {
+        Iterator<T> left = first.iterator();
+        Iterator<T> right = second.iterator();
+        Iterator<T> merged = new Iterator<>() {
+            private T nextLeft = left.hasNext() ? left.next() : null;
+            private T nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result;
+                if (nextRight == null || (nextLeft != null && order.compare(nextLeft, nextRight) <= 0)) {
+                    result = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    result = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try (first) {
+                        second.close();
+                    }
+                });
+    }
+}
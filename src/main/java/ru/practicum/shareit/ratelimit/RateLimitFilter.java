@@ -0,0 +1,119 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.dto.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits requests through a {@link TokenBucket} per {@code X-Sharer-User-Id} and endpoint group
+ * (see {@link RateLimitProperties}) and answers {@code 429} with {@code Retry-After} once a bucket is empty.
+ * Requests without the header share a bucket per client address.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Map.Entry<String, RateLimitProperties.Group>> groups;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<String, Counter> allowed = new HashMap<>();
+    private final Map<String, Counter> rejected = new HashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.groups = List.copyOf(properties.groups().entrySet());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+        for (String group : properties.groups().keySet()) {
+            allowed.put(group, counter(meterRegistry, group, "allowed"));
+            rejected.put(group, counter(meterRegistry, group, "rejected"));
+        }
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Map.Entry<String, RateLimitProperties.Group> group = findGroup(request.getRequestURI());
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String userId = request.getHeader(USER_ID_HEADER);
+        String client = userId != null ? userId : "address:" + request.getRemoteAddr();
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(group.getKey(), client), key -> new TokenBucket(
+                group.getValue().capacity(), group.getValue().refillPerSecond(), now));
+
+        long wait = bucket.tryTake(now);
+        if (wait == 0) {
+            allowed.get(group.getKey()).increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.get(group.getKey()).increment();
+        reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+
+    private Map.Entry<String, RateLimitProperties.Group> findGroup(String path) {
+        for (Map.Entry<String, RateLimitProperties.Group> group : groups) {
+            for (String pattern : group.getValue().paths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ErrorResponse error = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "Превышен лимит запросов, повторите через " + retryAfterSeconds + " с");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String group, String outcome) {
+        return Counter.builder("shareit.rate-limit.requests")
+                .tag("group", group)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record BucketKey(String group, String client) {
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request admission limits per {@code X-Sharer-User-Id}. Each group lists path patterns; a request is
+ * charged to the first group, in declaration order, with a matching pattern and is not limited otherwise.
+ *
+ * @param maxBuckets upper bound of buckets kept in memory; the least recently used ones are evicted first
+ * @param idleTimeout buckets untouched for this long are evicted, a full bucket carries no state worth keeping
+ */
+@ConfigurationProperties("shareit.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxBuckets,
+        @DefaultValue("10m") Duration idleTimeout,
+        Map<String, Group> groups) {
+
+    public RateLimitProperties {
+        groups = groups == null ? Map.of() : groups;
+    }
+
+    /**
+     * @param capacity requests a client can send in a burst
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Group(List<String> paths, int capacity, double refillPerSecond) {
+
+        // a bucket that never refills would lock its clients out until restart, so a bad setting fails startup
+        public Group {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+            }
+            if (!(refillPerSecond > 0)) {
+                throw new IllegalArgumentException("refill-per-second must be positive, got " + refillPerSecond);
+            }
+        }
+    }
+}
@@ -1,12 +1,48 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Validated
 public class ItemRequestController {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto createRequest(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @Valid @RequestBody ItemRequestDto requestDto) {
+        return itemRequestService.createRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+        return itemRequestService.getOwnRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOtherRequests(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+        return itemRequestService.getOtherRequests(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequest(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable Long requestId) {
+        return itemRequestService.getRequest(userId, requestId);
+    }
 }
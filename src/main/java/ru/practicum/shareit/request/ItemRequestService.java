@@ -0,0 +1,86 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemRequestService {
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+
+    @Transactional
+    public ItemRequestDto createRequest(Long userId, ItemRequestDto requestDto) {
+        checkUserExists(userId);
+
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description(requestDto.getDescription())
+                .requestor(userRepository.getReferenceById(userId))
+                .created(LocalDateTime.now())
+                .build());
+        return ItemRequestMapper.toDto(request, List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOwnRequests(Long userId) {
+        checkUserExists(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOtherRequests(Long userId, int from, int size) {
+        checkUserExists(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdNot(
+                userId, OffsetPageRequest.of(from, size, SORT_BY_CREATED_DESC)));
+    }
+
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequest(Long userId, Long requestId) {
+        checkUserExists(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Запрос не найден"));
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    /**
+     * Attaches the answers of all requests with a single {@code request_id IN (...)} query.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toDto(request, answers.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An item added in response to a request, read straight from the items table by
+ * {@link ru.practicum.shareit.item.ItemRepository#findAnswersByRequestIdIn}.
+ */
+@Data
+@AllArgsConstructor
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private Long ownerId;
+
+    @JsonIgnore
+    private Long requestId;
+}
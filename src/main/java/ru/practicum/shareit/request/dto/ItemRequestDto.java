@@ -1,7 +1,24 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
 public class ItemRequestDto {
+    private Long id;
+
+    @NotBlank(message = "Описание запроса не может быть пустым")
+    private String description;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime created;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<ItemAnswerDto> items;
 }
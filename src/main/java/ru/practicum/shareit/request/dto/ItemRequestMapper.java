@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.dto;
+
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+    public static ItemRequestDto toDto(ItemRequest request, List<ItemAnswerDto> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived memory of user ids known to exist, so that hot endpoints which only
+ * need to validate {@code X-Sharer-User-Id} do not hit the database on every call.
+ * Only positive answers are remembered; deleted users are forgotten immediately.
+ */
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> knownUsers;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-cache.maximum-size:100000}") long maximumSize,
+                              @Value("${shareit.user-cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.knownUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean exists(Long userId) {
+        if (knownUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            knownUsers.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void remember(Long userId) {
+        knownUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void forget(Long userId) {
+        knownUsers.invalidate(userId);
+    }
+}
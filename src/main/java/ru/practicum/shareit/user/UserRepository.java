@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+}
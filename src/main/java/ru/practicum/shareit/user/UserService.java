@@ -1,11 +1,20 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +23,10 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemCardCache itemCardCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemSummaryService itemSummaryService;
 
     public User createUser(UserDto userDto) {
         if (userRepository.existsByEmail(userDto.getEmail())) {
@@ -23,7 +36,9 @@ public class UserService {
                 .name(userDto.getName())
                 .email(userDto.getEmail())
                 .build();
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userExistenceCache.remember(savedUser.getId());
+        return savedUser;
     }
 
     public User updateUser(Long id, UserDto userDto) {
@@ -44,16 +59,35 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<User> getAllUsers(String cursor, int size) {
+        int limit = PageCursor.limit(size);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(PageCursor.decode(cursor), Limit.of(limit + 1));
+        return CursorPage.of(users, limit, User::getId);
     }
 
+    @Transactional(readOnly = true)
     public User getUser(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден с id: " + id));
     }
 
+    /**
+     * Deletes the user; the user's items, bookings and comments are removed by cascade. The in-memory caches
+     * are dropped after commit, so that a failed delete leaves them as they were and a concurrent read cannot
+     * cache the state from before the delete again.
+     */
+    @Transactional
     public void deleteUser(Long id) {
+        itemSummaryService.onUserDeleted(id);
         userRepository.deleteById(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userExistenceCache.forget(id);
+                itemCardCache.evictAll();
+                itemAvailabilityIndex.evictAll();
+            }
+        });
     }
 }
@@ -0,0 +1,3 @@
+-- WAITING and REJECTED listings of a booker read the archive too, in the order of the hot table's index
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_status_start
+    ON bookings_archive (booker_id, status, start_date, id);
@@ -0,0 +1,32 @@
+-- one index per access path of the repositories; IF NOT EXISTS keeps databases created by the old schema.sql working
+
+-- booking lists of a booker, by state
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date);
+
+-- comment eligibility
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
+
+-- owner lists (through items.owner_id), next booking and overlap checks
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- last booking
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+-- summaries to expire when a user is deleted, and the ON DELETE CASCADE of users
+CREATE INDEX IF NOT EXISTS idx_comments_author_id ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_item_summaries_valid_until ON item_summaries (valid_until);
@@ -0,0 +1,20 @@
+-- bookings that ended before the archive horizon, moved here by BookingArchiver
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT PRIMARY KEY,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
+    booker_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_item_status_end
+    ON bookings_archive (booker_id, item_id, status, end_date);
+
+-- the archiver's scan for bookings past the horizon
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
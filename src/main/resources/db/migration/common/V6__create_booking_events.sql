@@ -0,0 +1,18 @@
+-- transactional outbox: one row per booking change, written with the booking, claimed by a dispatcher and
+-- deleted once every consumer has handled it; ids are plain values, so events outlive the rows they describe
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    claimed_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_claimed ON booking_events (claimed_at, id);
+
+CREATE SEQUENCE IF NOT EXISTS booking_events_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,6 @@
+-- when the booking was requested: a WAITING booking is canceled once it starts or once it has waited
+-- for shareit.booking-expiry.timeout; bookings requested before this column existed wait from now on
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP;
+
+-- BookingExpirer loads the WAITING bookings page by page at startup
+CREATE INDEX IF NOT EXISTS idx_bookings_status_id ON bookings (status, id);
@@ -0,0 +1,5 @@
+-- searching for items free in a period anti-joins APPROVED bookings overlapping it; with end_date in the
+-- index the probe needs no table access. It replaces idx_bookings_item_status_start, its prefix
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start_end ON bookings (item_id, status, start_date, end_date);
+
+DROP INDEX IF EXISTS idx_bookings_item_status_start;
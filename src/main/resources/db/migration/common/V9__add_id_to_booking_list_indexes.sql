@@ -0,0 +1,24 @@
+-- booking lists are ordered by start_date DESC, id DESC; with the id as the last column a booker's index range,
+-- scanned backwards, is already in that order, ties included, and the owner lists merge ordered per-item ranges
+
+-- booking lists of a booker, by state
+DROP INDEX IF EXISTS idx_bookings_booker_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+DROP INDEX IF EXISTS idx_bookings_booker_status_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+
+-- owner lists (through items.owner_id)
+DROP INDEX IF EXISTS idx_bookings_item_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+
+DROP INDEX IF EXISTS idx_bookings_archive_booker_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date, id);
+
+DROP INDEX IF EXISTS idx_bookings_archive_item_start;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date, id);
@@ -0,0 +1,12 @@
+CREATE INDEX IF NOT EXISTS idx_items_search ON items
+    USING GIN (to_tsvector('simple', name || ' ' || description));
+
+-- rows inserted while ids came from the identity columns must not be handed out again by the sequences
+SELECT setval('items_seq', (SELECT MAX(id) FROM items))
+    WHERE (SELECT MAX(id) FROM items) > (SELECT last_value FROM items_seq);
+
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings))
+    WHERE (SELECT MAX(id) FROM bookings) > (SELECT last_value FROM bookings_seq);
+
+SELECT setval('comments_seq', (SELECT MAX(id) FROM comments))
+    WHERE (SELECT MAX(id) FROM comments) > (SELECT last_value FROM comments_seq);
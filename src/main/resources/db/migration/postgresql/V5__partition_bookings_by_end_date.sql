@@ -0,0 +1,48 @@
+-- bookings is rebuilt as a table partitioned by end_date: one partition per month and a default one for
+-- bookings ending further ahead. Queries for current and future bookings (end_date > now) only touch the
+-- recent partitions; BookingPartitionMaintainer creates the coming months and drops the archived ones.
+-- The primary key has to include the partition key; ids stay unique through bookings_seq.
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+CREATE TABLE bookings (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
+    booker_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+    PRIMARY KEY (id, end_date)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+DO $$
+DECLARE
+    partition_start DATE := date_trunc('month', COALESCE((SELECT MIN(end_date) FROM bookings_unpartitioned), now()));
+BEGIN
+    WHILE partition_start <= date_trunc('month', now()) + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                'bookings_p' || to_char(partition_start, 'YYYYMM'),
+                partition_start, partition_start + INTERVAL '1 month');
+        partition_start := partition_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date);
+
+CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date);
+
+CREATE INDEX idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
+
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX idx_bookings_end ON bookings (end_date);
@@ -0,0 +1,225 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements issued per endpoint once the user-existence cache is warm.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class QueryCountTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email(System.nanoTime() + "@owner.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email(System.nanoTime() + "@booker.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+
+        // warm up the user-existence cache
+        mvc.perform(get("/bookings").header(USER_ID_HEADER, booker.getId())).andExpect(status().isOk());
+        mvc.perform(get("/bookings").header(USER_ID_HEADER, owner.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void getUserBookingsIssuesOneQueryPerTable() throws Exception {
+        saveBooking(BookingStatus.WAITING);
+
+        // ALL covers the archive too
+        assertThat(countStatements(get("/bookings").header(USER_ID_HEADER, booker.getId()))).isEqualTo(2);
+        assertThat(countStatements(get("/bookings").param("state", "FUTURE")
+                .header(USER_ID_HEADER, booker.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void getOwnerBookingsIssuesOneQueryPerTable() throws Exception {
+        saveBooking(BookingStatus.WAITING);
+
+        assertThat(countStatements(get("/bookings/owner").header(USER_ID_HEADER, owner.getId()))).isEqualTo(2);
+        assertThat(countStatements(get("/bookings/owner").param("state", "FUTURE")
+                .header(USER_ID_HEADER, owner.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void approveBookingLocksBookingAndItemThenChecksOverlap() throws Exception {
+        Booking booking = saveBooking(BookingStatus.WAITING);
+
+        // plus the outbox insert, and a sequence call whenever the event ids of the pool run out
+        assertThat(countStatements(patch("/bookings/" + booking.getId())
+                .header(USER_ID_HEADER, owner.getId())
+                .param("approved", "true"))).isBetween(5L, 6L);
+    }
+
+    @Test
+    void rejectBookingIssuesSelectUpdateAndEventInsert() throws Exception {
+        Booking booking = saveBooking(BookingStatus.WAITING);
+
+        assertThat(countStatements(patch("/bookings/" + booking.getId())
+                .header(USER_ID_HEADER, owner.getId())
+                .param("approved", "false"))).isBetween(3L, 4L);
+    }
+
+    @Test
+    void getBookingByIdFetchesItemAndBookerInOneQuery() throws Exception {
+        Booking booking = saveBooking(BookingStatus.WAITING);
+
+        assertThat(countStatements(get("/bookings/" + booking.getId())
+                .header(USER_ID_HEADER, booker.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void addItemIssuesOnlyInsert() throws Exception {
+        assertThat(countStatements(post("/items")
+                .header(USER_ID_HEADER, owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true}"))).isEqualTo(1);
+    }
+
+    @Test
+    void createBookingsInsertsInBatchesAndReportsEachEntry() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            body.append(bookingJson(item.getId(), start.plusDays(i))).append(',');
+        }
+        body.append(bookingJson(-1L, start)).append(']');
+
+        statistics.clear();
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(101))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.status").value("WAITING"))
+                .andExpect(jsonPath("$[100].status").value(404))
+                .andExpect(jsonPath("$[100].error.error").value("Entity Not Found"));
+
+        // the bookings and their outbox events
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        // user, items and overlap lookups, the summary expiry, and for bookings and events alike
+        // up to three sequence calls and two insert batches
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(14);
+    }
+
+    @Test
+    void approveBookingsRejectsOverlapWithinTheBatch() throws Exception {
+        Booking first = saveBooking(BookingStatus.WAITING);
+        Booking overlapping = saveBooking(BookingStatus.WAITING);
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, owner.getId())
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + first.getId() + "," + overlapping.getId() + "," + Long.MAX_VALUE + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[2].status").value(404));
+
+        assertThat(bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void batchesReportNullEntriesAsBadRequests() throws Exception {
+        Booking booking = saveBooking(BookingStatus.WAITING);
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, owner.getId())
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + booking.getId() + ", null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value(400));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null, " + bookingJson(item.getId(), LocalDateTime.now().plusDays(30)) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(400))
+                .andExpect(jsonPath("$[1].booking.status").value("WAITING"));
+    }
+
+    @Test
+    void getOwnRequestsAttachesAnswersWithOneQuery() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Нужна дрель").requestor(booker).created(LocalDateTime.now()).build());
+            itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                    .available(true).owner(owner).request(request).build());
+        }
+
+        assertThat(countStatements(get("/requests").header(USER_ID_HEADER, booker.getId()))).isEqualTo(2);
+    }
+
+    private static String bookingJson(Long itemId, LocalDateTime start) {
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + start.withNano(0)
+                + "\",\"end\":\"" + start.plusHours(1).withNano(0) + "\"}";
+    }
+
+    private Booking saveBooking(BookingStatus status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return bookingRepository.save(Booking.builder().start(start).end(start.plusDays(1))
+                .item(item).booker(booker).status(status).build());
+    }
+
+    private long countStatements(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL of every repository query against H2 in PostgreSQL mode and fails
+ * when a plan scans one of the tables that grow with usage instead of using an index.
+ */
+@SpringBootTest(properties = "spring.datasource.url="
+        + "jdbc:h2:mem:plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final List<String> LARGE_TABLES = List.of("bookings", "bookings_archive", "items", "comments",
+            "requests", "item_summaries");
+    private static final Pattern TABLE_SCAN = Pattern.compile("public\\.(\\w+)\\.tableScan");
+    private static final int USERS = 100;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+
+    @SpyBean
+    private SqlStatementCounter sqlStatementCounter;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+
+    @BeforeAll
+    void fillTables() {
+        LocalDateTime now = LocalDateTime.now();
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", USERS,
+                i -> new Object[]{i, "user" + i, "user" + i + "@mail.ru"});
+        insert("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)", ITEMS,
+                i -> new Object[]{i, "request" + i, i % USERS + 1, Timestamp.valueOf(now.minusHours(i))});
+        insert("INSERT INTO items (id, name, description, is_available, owner_id, request_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", ITEMS,
+                i -> new Object[]{i, "item" + i, "description" + i, true, i % USERS + 1, i});
+        insert("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", BOOKINGS,
+                i -> new Object[]{i, Timestamp.valueOf(now.plusDays(i % 100 - 50)),
+                        Timestamp.valueOf(now.plusDays(i % 100 - 49)), i % ITEMS + 1, i % USERS + 1,
+                        BookingStatus.values()[i % BookingStatus.values().length].name()});
+        insert("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, archived_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", BOOKINGS,
+                i -> new Object[]{BOOKINGS + i, Timestamp.valueOf(now.minusDays(800 + i % 100)),
+                        Timestamp.valueOf(now.minusDays(799 + i % 100)), i % ITEMS + 1, i % USERS + 1,
+                        BookingStatus.values()[i % BookingStatus.values().length].name(), Timestamp.valueOf(now)});
+        insert("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)", ITEMS,
+                i -> new Object[]{i, "comment" + i, i, i % USERS + 1, Timestamp.valueOf(now)});
+        insert("INSERT INTO item_summaries (item_id, latest_comments, valid_until, refreshed_at) "
+                        + "VALUES (?, '[]', ?, ?)", ITEMS,
+                i -> new Object[]{i, Timestamp.valueOf(now.plusDays(i % 10)), Timestamp.valueOf(now)});
+        jdbc.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+        Sort byStart = Sort.by(Sort.Direction.DESC, "start");
+        List<Long> ids = List.of(1L, 2L, 3L);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("booking by id with item and booker", () -> bookingRepository.findWithItemAndBookerById(1L));
+        queries.put("locked booking", () -> bookingRepository.findLockedById(1L));
+        queries.put("locked bookings", () -> bookingRepository.findLockedByIdIn(ids));
+        queries.put("overlap check", () -> bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                1L, BookingStatus.APPROVED, now.plusDays(1), now));
+        queries.put("overlap check of a batch", () -> bookingRepository
+                .findByItemIdInAndStatusAndStartBeforeAndEndAfter(ids, BookingStatus.APPROVED, now.plusDays(1), now));
+        queries.put("availability of items", () -> bookingRepository.findByItemIdInAndStatusInAndEndAfter(
+                ids, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now));
+        queries.put("booked items of a search page", () -> bookingRepository.findBookedItemIds(
+                ids, now, now.plusDays(1)));
+        queries.put("booker: all", () -> bookingRepository.findByBookerId(1L, page));
+        queries.put("booker: current", () -> bookingRepository
+                .findByBookerIdAndStartBeforeAndEndAfter(1L, now, now, page));
+        queries.put("booker: past", () -> bookingRepository.findByBookerIdAndEndBefore(1L, now, page));
+        queries.put("booker: future", () -> bookingRepository
+                .findByBookerIdAndStartAfterAndEndAfter(1L, now, now, page));
+        queries.put("booker: by status", () -> bookingRepository
+                .findByBookerIdAndStatus(1L, BookingStatus.WAITING, page));
+        queries.put("owner: all", () -> bookingRepository.findByItemOwnerId(1L, page));
+        queries.put("owner: current", () -> bookingRepository
+                .findByItemOwnerIdAndStartBeforeAndEndAfter(1L, now, now, page));
+        queries.put("owner: past", () -> bookingRepository.findByItemOwnerIdAndEndBefore(1L, now, page));
+        queries.put("owner: future", () -> bookingRepository.findByItemOwnerIdAndStartAfter(1L, now, page));
+        queries.put("owner: by status", () -> bookingRepository
+                .findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, page));
+        queries.put("owner: stream", () -> {
+            try (Stream<?> bookings = bookingRepository.streamByItemOwnerId(1L, byStart)) {
+                bookings.count();
+            }
+        });
+        queries.put("last booking", () -> bookingRepository.findLastBooking(1L, now, Limit.of(1)));
+        queries.put("next booking", () -> bookingRepository.findNextBooking(1L, now, Limit.of(1)));
+        queries.put("last bookings", () -> bookingRepository.findLastBookings(ids, now));
+        queries.put("next bookings", () -> bookingRepository.findNextBookings(ids, now));
+        queries.put("comment eligibility", () -> bookingRepository
+                .existsByBookerIdAndItemIdAndStatusAndEndBefore(1L, 1L, BookingStatus.APPROVED, now));
+        queries.put("archive: booker", () -> bookingArchiveRepository.findByBookerId(1L, page));
+        queries.put("archive: owner", () -> bookingArchiveRepository.findByItemOwnerId(1L, page));
+        queries.put("archive: owner stream", () -> {
+            try (Stream<?> bookings = bookingArchiveRepository.streamByItemOwnerId(1L, byStart)) {
+                bookings.count();
+            }
+        });
+        queries.put("archive: by id", () -> bookingArchiveRepository.findWithItemAndBookerById(1L));
+        queries.put("archive: booker by status", () -> bookingArchiveRepository
+                .findByBookerIdAndStatus(1L, BookingStatus.REJECTED, page));
+        queries.put("archive: owner by status", () -> bookingArchiveRepository
+                .findByItemOwnerIdAndStatus(1L, BookingStatus.REJECTED, page));
+        queries.put("archive: owner stream by status", () -> {
+            try (Stream<?> bookings = bookingArchiveRepository
+                    .streamByItemOwnerIdAndStatus(1L, BookingStatus.REJECTED, byStart)) {
+                bookings.count();
+            }
+        });
+        queries.put("archive: comment eligibility", () -> bookingArchiveRepository
+                .existsByBookerIdAndItemIdAndStatusAndEndBefore(1L, 1L, BookingStatus.APPROVED, now));
+        queries.put("archive: bookings to move", () -> bookingRepository
+                .findIdsByEndBefore(now.minusDays(30), Limit.of(100)));
+        queries.put("archive: copy", () -> bookingArchiveRepository.copyFromBookings(ids, now.minusDays(365), now));
+        queries.put("archive: delete", () -> bookingRepository.deleteByIdInAndEndBefore(ids, now.minusDays(365)));
+        queries.put("waiting bookings to expire", () -> bookingRepository.findWaitingAfter(0L, Limit.of(100)));
+        queries.put("locked item", () -> itemRepository.findLockedById(1L));
+        queries.put("locked items", () -> itemRepository.findLockedByIdIn(ids));
+        queries.put("items of owner", () -> itemRepository
+                .findByOwnerIdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(10)));
+        queries.put("items after id", () -> itemRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)));
+        queries.put("existing items", () -> itemRepository.findIdsByIdIn(ids));
+        queries.put("answers to requests", () -> itemRepository.findAnswersByRequestIdIn(ids));
+        queries.put("comments of items", () -> commentRepository.findByItemIdIn(ids));
+        queries.put("own requests", () -> itemRequestRepository.findByRequestorIdOrderByCreatedDesc(1L));
+        queries.put("requests of others", () -> itemRequestRepository.findByRequestorIdNot(1L,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))));
+        queries.put("summary with item", () -> itemSummaryRepository.findWithItemByItemId(1L));
+        queries.put("locked summaries", () -> itemSummaryRepository.findLockedByItemIdIn(ids));
+        queries.put("expired summaries", () -> itemSummaryRepository.findExpiredItemIds(now, Limit.of(10)));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    for (String sql : capture(query.getValue())) {
+                        assertThat(scannedTables(sql))
+                                .as("plan of %s", sql)
+                                .doesNotContainAnyElementsOf(LARGE_TABLES);
+                    }
+                }));
+    }
+
+    private List<String> capture(Runnable query) {
+        clearInvocations(sqlStatementCounter);
+        // locking, streaming and modifying queries need a transaction; it is rolled back to keep the data set
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(sqlStatementCounter, atLeastOnce()).inspect(sql.capture());
+        return sql.getAllValues();
+    }
+
+    private List<String> scannedTables(String sql) {
+        String plan = jdbc.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+        List<String> tables = new ArrayList<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+
+    private void insert(String sql, int rows, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(row.apply(i));
+        }
+        jdbc.batchUpdate(sql, batch);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single item with concurrent approvals of overlapping bookings and checks that
+ * no two approved bookings of the item overlap.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void concurrentApprovalsNeverDoubleBookAnItem() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@race.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker" + i).email(i + "@race.ru").build()));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+
+        // overlapping WAITING bookings are allowed, the race is on approval
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * BOOKINGS_PER_THREAD; i++) {
+            LocalDateTime from = base.plusHours(ThreadLocalRandom.current().nextInt(200));
+            BookingDto request = BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(from)
+                    .end(from.plusHours(1 + ThreadLocalRandom.current().nextInt(6)))
+                    .build();
+            bookingIds.add(bookingService.createBooking(bookers.get(i % THREADS).getId(), request).getId());
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Long> slice = bookingIds.subList(t * BOOKINGS_PER_THREAD, (t + 1) * BOOKINGS_PER_THREAD);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (Long bookingId : slice) {
+                    try {
+                        bookingService.updateBookingStatus(owner.getId(), bookingId, true);
+                        approved.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Booking> approvedBookings = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .toList();
+        for (int i = 1; i < approvedBookings.size(); i++) {
+            assertThat(approvedBookings.get(i).getStart())
+                    .as("approved bookings %d and %d overlap",
+                            approvedBookings.get(i - 1).getId(), approvedBookings.get(i).getId())
+                    .isAfterOrEqualTo(approvedBookings.get(i - 1).getEnd());
+        }
+        assertThat(approvedBookings).hasSize(approved.get()).isNotEmpty();
+        assertThat(approved.get() + conflicts.get()).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through the booker's and the owner's booking lists in every state. Pairs of bookings share their
+ * start, and one of the past pair is archived, so the pages only line up when ties are ordered by id
+ * in the database and in the merge with the archive alike.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-lists",
+        // every state is paged with dozens of listing requests per user
+        "shareit.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingListTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    // in the order of their ids
+    private long archivedPast;
+    private long past;
+    private long rejectedPast;
+    private long current;
+    private long laterCurrent;
+    private long waiting;
+    private long laterWaiting;
+    private long rejectedFuture;
+
+    @BeforeAll
+    void createBookings() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@lists.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@lists.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        archivedPast = book(item, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        past = book(item, now.minusDays(10), now.minusDays(8), BookingStatus.APPROVED);
+        rejectedPast = book(item, now.minusDays(5), now.minusDays(4), BookingStatus.REJECTED);
+        current = book(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        laterCurrent = book(item, now.minusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        waiting = book(item, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        laterWaiting = book(item, now.plusDays(1), now.plusDays(3), BookingStatus.WAITING);
+        rejectedFuture = book(item, now.plusDays(5), now.plusDays(6), BookingStatus.REJECTED);
+
+        jdbc.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, archived_at) "
+                + "SELECT id, start_date, end_date, item_id, booker_id, status, ? FROM bookings WHERE id = ?",
+                now, archivedPast);
+        jdbc.update("DELETE FROM bookings WHERE id = ?", archivedPast);
+    }
+
+    @Test
+    void pagesAllBookings() throws Exception {
+        assertPages("ALL", rejectedFuture, laterWaiting, waiting, laterCurrent, current, rejectedPast, past,
+                archivedPast);
+    }
+
+    @Test
+    void pagesCurrentBookings() throws Exception {
+        assertPages("CURRENT", laterCurrent, current);
+    }
+
+    @Test
+    void pagesPastBookings() throws Exception {
+        assertPages("PAST", rejectedPast, past, archivedPast);
+    }
+
+    @Test
+    void pagesFutureBookings() throws Exception {
+        assertPages("FUTURE", rejectedFuture, laterWaiting, waiting);
+    }
+
+    @Test
+    void pagesWaitingBookings() throws Exception {
+        assertPages("WAITING", laterWaiting, waiting);
+    }
+
+    @Test
+    void pagesRejectedBookings() throws Exception {
+        assertPages("rejected", rejectedFuture, rejectedPast);
+    }
+
+    @Test
+    void rejectsAnUnknownState() throws Exception {
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            mvc.perform(get(path).header(USER_ID_HEADER, booker.getId()).param("state", "UNSUPPORTED"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void rejectsANegativeOffset() throws Exception {
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            mvc.perform(get(path).header(USER_ID_HEADER, booker.getId()).param("from", "-1"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void rejectsAnOffsetPastTheLargestArchivePage() throws Exception {
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            for (String state : List.of("ALL", "PAST")) {
+                mvc.perform(get(path).header(USER_ID_HEADER, booker.getId())
+                                .param("state", state)
+                                .param("from", Integer.toString(Integer.MAX_VALUE))
+                                .param("size", "10"))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+        assertThat(list("/bookings", booker, "FUTURE", Integer.MAX_VALUE, 10)).isEmpty();
+    }
+
+    /**
+     * Checks both lists of the state page by page, with a page size that does not divide the offsets.
+     */
+    private void assertPages(String state, Long... expected) throws Exception {
+        assertThat(list("/bookings", booker, state, 0, 100)).containsExactly(expected);
+        assertThat(list("/bookings/owner", owner, state, 0, 100)).containsExactly(expected);
+
+        for (int size = 1; size <= 3; size++) {
+            for (int from = 0; from <= expected.length; from++) {
+                List<Long> page = List.of(expected).subList(from, Math.min(from + size, expected.length));
+                assertThat(list("/bookings", booker, state, from, size))
+                        .as("bookings of the booker, from %d, size %d", from, size)
+                        .isEqualTo(page);
+                assertThat(list("/bookings/owner", owner, state, from, size))
+                        .as("bookings of the owner, from %d, size %d", from, size)
+                        .isEqualTo(page);
+            }
+        }
+    }
+
+    private List<Long> list(String path, User user, String state, int from, int size) throws Exception {
+        String json = mvc.perform(get(path)
+                        .header(USER_ID_HEADER, user.getId())
+                        .param("state", state)
+                        .param("from", Integer.toString(from))
+                        .param("size", Integer.toString(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (Number id : JsonPath.<List<Number>>read(json, "$[*].id")) {
+            ids.add(id.longValue());
+        }
+        return ids;
+    }
+
+    private long book(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).start(start).end(end).status(status).build()).getId();
+    }
+}
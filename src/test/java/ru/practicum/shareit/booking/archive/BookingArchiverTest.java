@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Archives bookings of every status and checks that they can still be found by id and in the listings
+ * filtered by status.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-archive")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingArchiverTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Booking archivedRejected;
+    private Booking archivedApproved;
+    private Booking rejected;
+
+    @BeforeAll
+    void archiveEndedBookings() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@archive.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@archive.ru").build());
+        stranger = userRepository.save(User.builder().name("stranger").email("stranger@archive.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        archivedRejected = book(item, now.minusDays(30), now.minusDays(29), BookingStatus.REJECTED);
+        archivedApproved = book(item, now.minusDays(20), now.minusDays(19), BookingStatus.APPROVED);
+        rejected = book(item, now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED);
+
+        assertThat(bookingArchiver.archive(now.minusDays(1), now)).isEqualTo(2);
+        assertThat(bookingRepository.existsById(archivedRejected.getId())).isFalse();
+        assertThat(bookingArchiveRepository.existsById(archivedRejected.getId())).isTrue();
+    }
+
+    @Test
+    void findsArchivedBookingsById() throws Exception {
+        for (User user : new User[]{booker, owner}) {
+            mvc.perform(get("/bookings/{id}", archivedApproved.getId()).header(USER_ID_HEADER, user.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(archivedApproved.getId()))
+                    .andExpect(jsonPath("$.status").value("APPROVED"));
+        }
+        mvc.perform(get("/bookings/{id}", archivedApproved.getId()).header(USER_ID_HEADER, stranger.getId()))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/bookings/{id}", Long.MAX_VALUE).header(USER_ID_HEADER, booker.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listsArchivedBookingsByStatus() throws Exception {
+        mvc.perform(get("/bookings").header(USER_ID_HEADER, booker.getId()).param("state", "REJECTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(rejected.getId().intValue(),
+                        archivedRejected.getId().intValue())));
+        mvc.perform(get("/bookings/owner").header(USER_ID_HEADER, owner.getId()).param("state", "REJECTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(rejected.getId().intValue(),
+                        archivedRejected.getId().intValue())));
+        mvc.perform(get("/bookings/owner").header(USER_ID_HEADER, owner.getId())
+                        .param("state", "REJECTED").param("from", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(archivedRejected.getId()));
+    }
+
+    private Booking book(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).start(start).end(end).status(status).build());
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events",
+        "shareit.booking-events.batch-size=1",
+        "shareit.booking-events.queue-capacity=1"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingEventDispatcherTest {
+    @Autowired
+    private BookingEventDispatcher dispatcher;
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+    @Autowired
+    private RecordingConsumer recordingConsumer;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemSummaryService itemSummaryService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        recordingConsumer.reset();
+        String suffix = Long.toString(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@events.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@events.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+    }
+
+    @Test
+    void deliversEveryChangeToTheConsumersAndEmptiesTheOutbox() throws Exception {
+        Long bookingId = book(1).getId();
+        bookingService.updateBookingStatus(owner.getId(), bookingId, true);
+        // the new booking expired the summary built on the first read
+        itemSummaryService.getAll(List.of(item), LocalDateTime.now());
+        bookingService.createBooking(booker.getId(), request(3));
+
+        drain();
+
+        assertThat(recordingConsumer.received)
+                .filteredOn(event -> event.getBookingId().equals(bookingId))
+                .extracting(BookingEvent::getStatus)
+                .containsExactly(BookingStatus.WAITING, BookingStatus.APPROVED);
+        assertThat(itemSummaryService.findWithItem(item.getId()).orElseThrow()
+                .isStale(LocalDateTime.now())).isFalse();
+    }
+
+    @Test
+    void stopsClaimingWhileAConsumerQueueIsFull() throws Exception {
+        recordingConsumer.gate = new CountDownLatch(1);
+        book(1);
+        book(3);
+        book(5);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(recordingConsumer.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        // the other consumers may still hold the first batch in their queues
+        assertThat(dispatchWithin(5)).isEqualTo(1);
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(bookingEventRepository.count()).isEqualTo(3);
+
+        recordingConsumer.gate.countDown();
+        drain();
+        assertThat(recordingConsumer.received).hasSize(3);
+    }
+
+    private BookingDto book(int daysAhead) throws Exception {
+        return bookingService.createBooking(booker.getId(), request(daysAhead));
+    }
+
+    private BookingDto request(int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead);
+        return BookingDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build();
+    }
+
+    private int dispatchWithin(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        int count = dispatcher.dispatch();
+        while (count == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            count = dispatcher.dispatch();
+        }
+        return count;
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bookingEventRepository.count() > 0 && System.nanoTime() < deadline) {
+            dispatcher.dispatch();
+            Thread.sleep(20);
+        }
+        assertThat(bookingEventRepository.count()).isZero();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+
+    static class RecordingConsumer implements BookingEventConsumer {
+        private final List<BookingEvent> received = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch entered;
+        private volatile CountDownLatch gate;
+
+        void reset() {
+            received.clear();
+            entered = new CountDownLatch(1);
+            gate = null;
+        }
+
+        @Override
+        public void accept(List<BookingEvent> events) {
+            entered.countDown();
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            received.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:expiry",
+        "shareit.booking-expiry.timeout=1h"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingExpirerTest {
+    @Autowired
+    private BookingExpirer bookingExpirer;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void cancelsWaitingBookingsThatStartedOrTimedOut() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@expiry.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@expiry.ru").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = save(item, booker, now.minusMinutes(1), BookingStatus.WAITING);
+        Booking pending = save(item, booker, now.plusDays(1), BookingStatus.WAITING);
+        Booking approved = save(item, booker, now.minusMinutes(1), BookingStatus.APPROVED);
+
+        assertThat(bookingExpirer.cancel(List.of(started.getId(), pending.getId(), approved.getId()), now))
+                .isEqualTo(1);
+        assertThat(bookingExpirer.cancel(List.of(pending.getId()), now.plusHours(2))).isEqualTo(1);
+
+        assertThat(bookingRepository.findAllById(List.of(started.getId(), pending.getId(), approved.getId())))
+                .extracting(Booking::getStatus)
+                .containsExactlyInAnyOrder(BookingStatus.CANCELED, BookingStatus.CANCELED, BookingStatus.APPROVED);
+        assertThat(bookingEventRepository.findAll())
+                .extracting(BookingEvent::getBookingId, BookingEvent::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(started.getId(), BookingStatus.CANCELED),
+                        tuple(pending.getId(), BookingStatus.CANCELED));
+    }
+
+    private Booking save(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder().start(start).end(start.plusDays(2))
+                .item(item).booker(booker).status(status).build());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    private static final long TICK = 1000;
+
+    @Test
+    void expiresEveryTimeoutWithinOneTickAfterItsDeadline() {
+        long start = 1_700_000_000_500L;
+        TimingWheel wheel = new TimingWheel(TICK, 8, start);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            // up to three levels: 8, 64 and 512 ticks
+            long deadline = start + ThreadLocalRandom.current().nextLong(500 * TICK);
+            deadlines.put(id, deadline);
+            assertThat(wheel.add(id, deadline)).isTrue();
+        }
+
+        Map<Long, Long> expiredAt = new HashMap<>();
+        for (long now = start; now <= start + 600 * TICK; now += 250) {
+            long time = now;
+            wheel.advanceTo(now, id -> expiredAt.put(id, time));
+        }
+
+        assertThat(expiredAt).hasSameSizeAs(deadlines);
+        assertThat(wheel.size()).isZero();
+        deadlines.forEach((id, deadline) -> assertThat(expiredAt.get(id))
+                .as("booking %d due at %d", id, deadline)
+                .isGreaterThanOrEqualTo(deadline)
+                .isLessThan(deadline + TICK + 250));
+    }
+
+    @Test
+    void rejectsPastDeadlinesAndCatchesUpAfterAPause() {
+        long start = 1_700_000_000_000L;
+        TimingWheel wheel = new TimingWheel(TICK, 8, start);
+        assertThat(wheel.add(1, start - 1)).isFalse();
+        wheel.add(2, start + 30 * TICK);
+        wheel.add(3, start + 3_000 * TICK);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(start + 10_000 * TICK, expired::add);
+
+        assertThat(expired).containsExactly(2L, 3L);
+    }
+}
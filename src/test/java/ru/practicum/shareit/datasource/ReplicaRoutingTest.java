@@ -0,0 +1,111 @@
+package ru.practicum.shareit.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routes between two H2 databases. The replica is migrated on its own and holds a user the primary does
+ * not have, so each response shows which database served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-primary",
+        "shareit.replicas.enabled=true",
+        "shareit.replicas.instances[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "shareit.replicas.check-interval=P1D"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final long REPLICA_ONLY_USER_ID = 1000;
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        replica.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE PRECISION NOT NULL)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO users (id, name, email) VALUES (?, 'replica', 'replica@routing.ru')",
+                REPLICA_ONLY_USER_ID);
+    }
+
+    @BeforeEach
+    void catchUpReplica() {
+        replica.update("UPDATE replica_lag SET lag_seconds = 0");
+        replicaDataSource.checkReplicas();
+    }
+
+    @Test
+    void servesReadOnlyRequestsFromTheReplica() throws Exception {
+        mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 201))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("replica"));
+    }
+
+    @Test
+    void readsFromThePrimaryRightAfterTheClientsWrite() throws Exception {
+        mvc.perform(post("/users").header(USER_ID_HEADER, 202)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"primary\", \"email\": \"primary@routing.ru\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 202))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 203))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaLags() throws Exception {
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+        replicaDataSource.checkReplicas();
+
+        mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 204))
+                .andExpect(status().isNotFound());
+
+        replica.update("UPDATE replica_lag SET lag_seconds = 1");
+        replicaDataSource.checkReplicas();
+
+        mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 204))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenTheReplicaCheckFails() throws Exception {
+        replica.execute("ALTER TABLE replica_lag RENAME TO replica_lag_broken");
+        try {
+            replicaDataSource.checkReplicas();
+
+            mvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID).header(USER_ID_HEADER, 205))
+                    .andExpect(status().isNotFound());
+        } finally {
+            replica.execute("ALTER TABLE replica_lag_broken RENAME TO replica_lag");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void findsTheSameOverlapsAsAFullScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, BookedInterval> all = new HashMap<>();
+        for (long id = 1; id <= 3000; id++) {
+            BookedInterval interval = interval(id, random.nextInt(10_000), 1 + random.nextInt(200));
+            tree.put(interval);
+            all.put(id, interval);
+            if (random.nextInt(4) == 0) {
+                long removed = 1 + random.nextInt((int) id);
+                tree.remove(removed);
+                all.remove(removed);
+            }
+        }
+        // moving a booking replaces it
+        BookedInterval moved = interval(7L, 20_000, 5);
+        tree.put(moved);
+        all.put(7L, moved);
+
+        assertThat(tree.size()).isEqualTo(all.size());
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime from = BASE.plusHours(random.nextInt(21_000));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(300));
+            List<BookedInterval> expected = all.values().stream()
+                    .filter(interval -> interval.start().isBefore(to) && interval.end().isAfter(from))
+                    .sorted(Comparator.comparing(BookedInterval::start).thenComparing(BookedInterval::bookingId))
+                    .toList();
+            assertThat(tree.overlapping(from, to)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static BookedInterval interval(long id, int startHours, int hours) {
+        return new BookedInterval(id, BASE.plusHours(startHours), BASE.plusHours(startHours + hours),
+                BookingStatus.APPROVED);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:availability")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemAvailabilityTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void showsRequestedAndBookedIntervalsAndFollowsDecisions() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@calendar.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@calendar.ru").build());
+        Item drill = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+        Item saw = itemRepository.save(Item.builder().name("Пила").description("Ручная пила")
+                .available(true).owner(owner).build());
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusDays(10);
+
+        // loaded before the bookings exist, so the calendar has to follow the writes
+        mvc.perform(get("/items/{id}/availability", drill.getId()).param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervals.length()").value(1))
+                .andExpect(jsonPath("$.intervals[0].status").value("FREE"));
+
+        Long first = book(booker, drill, from.plusDays(1), from.plusDays(3));
+        Long second = book(booker, drill, from.plusDays(2), from.plusDays(4));
+        bookingService.updateBookingStatus(owner.getId(), first, true);
+
+        mvc.perform(get("/items/{id}/availability", drill.getId()).param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervals[*].status").value(
+                        contains("FREE", "BOOKED", "REQUESTED", "FREE")))
+                .andExpect(jsonPath("$.intervals[1].start").value(from.plusDays(1).toString() + ":00"))
+                .andExpect(jsonPath("$.intervals[2].start").value(from.plusDays(3).toString() + ":00"))
+                .andExpect(jsonPath("$.intervals[2].end").value(from.plusDays(4).toString() + ":00"));
+
+        bookingService.updateBookingStatus(owner.getId(), second, false);
+        mvc.perform(get("/items/availability").param("ids", drill.getId() + "," + saw.getId())
+                        .param("from", from.toString()).param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].intervals[*].status").value(
+                        contains("FREE", "BOOKED", "FREE")))
+                .andExpect(jsonPath("$[1].itemId").value(saw.getId()))
+                .andExpect(jsonPath("$[1].intervals[0].status").value("FREE"));
+
+        mvc.perform(get("/items/availability").param("ids", drill.getId() + ",-1"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long book(User booker, Item item, LocalDateTime start, LocalDateTime end) throws Exception {
+        return bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId()).start(start).end(end).build()).getId();
+    }
+}
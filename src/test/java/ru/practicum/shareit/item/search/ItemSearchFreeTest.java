@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search-free")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemSearchFreeTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void leavesOutItemsApprovedForAnOverlappingBookingAndPagesOverTheRest() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@search.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@search.ru").build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ItemDto item = ItemDto.builder().name("Палатка " + i).description("Туристическая палатка")
+                    .available(true).build();
+            ids.add(itemService.addItem(owner.getId(), item).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = start.plusDays(2);
+        // approved and overlapping
+        bookingService.updateBookingStatus(owner.getId(),
+                book(booker, ids.get(0), start.minusDays(1), start.plusHours(1)), true);
+        // only requested
+        book(booker, ids.get(1), start, end);
+        // approved, but ends when the period starts
+        bookingService.updateBookingStatus(owner.getId(),
+                book(booker, ids.get(2), start.minusDays(2), start), true);
+
+        assertThat(search(start, end, null, 10)).containsExactly(ids.get(1), ids.get(2), ids.get(3), ids.get(4));
+        assertThat(search(null, null, null, 10)).containsExactlyElementsOf(ids);
+
+        String cursor = itemService.searchItems("палатка", start, end, null, 3).nextCursor();
+        assertThat(search(start, end, cursor, 3)).containsExactly(ids.get(4));
+
+        assertThatThrownBy(() -> search(start, null, null, 10)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> search(end, start, null, 10)).isInstanceOf(ValidationException.class);
+    }
+
+    private List<Long> search(LocalDateTime start, LocalDateTime end, String cursor, int size) {
+        return itemService.searchItems("палатка", start, end, cursor, size).content().stream()
+                .map(Item::getId)
+                .toList();
+    }
+
+    private Long book(User booker, Long itemId, LocalDateTime start, LocalDateTime end) throws Exception {
+        return bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .itemId(itemId).start(start).end(end).build()).getId();
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native queries of {@link PostgresItemSearchEngine}, which H2 cannot execute, against the PostgreSQL
+ * database in {@code SHAREIT_POSTGRES_URL}, in a schema of its own. Skipped when the variable is not set.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SHAREIT_POSTGRES_URL", matches = ".+")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostgresItemSearchTest {
+    private static final String SCHEMA = "search_test_" + System.nanoTime();
+    private static final Pattern PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+    private static final Pattern BOOKINGS_INDEX_PROBE = Pattern.compile(
+            "Index (Only )?Scan using \\S*(idx_bookings_item_status_start_end|item_id_status_start_date_end_date_idx)");
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.HOURS);
+    private final LocalDateTime end = start.plusDays(2);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemService itemService;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        String url = System.getenv("SHAREIT_POSTGRES_URL");
+        registry.add("spring.datasource.url",
+                () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username",
+                () -> System.getenv().getOrDefault("SHAREIT_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password",
+                () -> System.getenv().getOrDefault("SHAREIT_POSTGRES_PASSWORD", ""));
+        registry.add("spring.flyway.schemas", () -> SCHEMA);
+        registry.add("shareit.search.engine", () -> "postgres");
+        registry.add("shareit.bookings.partitioned", () -> "true");
+    }
+
+    @BeforeAll
+    void fillTables() {
+        jdbc.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@pg.ru'), "
+                + "(2, 'booker', 'booker@pg.ru')");
+        for (long id = 1; id <= 5; id++) {
+            jdbc.update("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, TRUE, 1)",
+                    id, "Tent " + id, "Camping tent");
+        }
+        // approved and overlapping
+        book(1, 1, start.minusDays(1), start.plusHours(1), "APPROVED");
+        // only requested
+        book(2, 2, start, end, "WAITING");
+        // approved, but ends when the period starts
+        book(3, 3, start.minusDays(2), start, "APPROVED");
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void dropSchema() {
+        jdbc.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void fullTextSearchFreeLeavesOutItemsWithOverlappingApprovedBookings() {
+        assertThat(itemRepository.fullTextSearchFree("tent:*", start, end, 0, 10))
+                .containsExactlyInAnyOrder(2L, 3L, 4L, 5L);
+        assertThat(itemRepository.fullTextSearchFree("tent:*", start, end, 3, 10)).hasSize(1);
+
+        assertThat(itemService.searchItems("tent", start, end, null, 10).content())
+                .extracting(Item::getId)
+                .containsExactlyInAnyOrder(2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void fullTextSearchFreeProbesTheBookingWindowIndex() throws Exception {
+        String plan = explain(ItemRepository.class.getMethod("fullTextSearchFree", String.class,
+                        LocalDateTime.class, LocalDateTime.class, long.class, int.class)
+                        .getAnnotation(Query.class).value(),
+                Map.of("query", "tent:*", "start", Timestamp.valueOf(start), "end", Timestamp.valueOf(end),
+                        "offset", 0L, "limit", 10));
+
+        assertThat(plan).contains("Anti Join");
+        assertThat(BOOKINGS_INDEX_PROBE.matcher(plan).find()).as(plan).isTrue();
+        assertThat(plan).doesNotContainPattern("Seq Scan on bookings");
+    }
+
+    /**
+     * Plan of a native query with its named parameters bound. Sequential scans are disabled, so that the
+     * plan of the few test rows shows whether an index can serve the query at all.
+     */
+    private String explain(String sql, Map<String, Object> parameters) {
+        List<Object> values = new ArrayList<>();
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder jdbcSql = new StringBuilder("EXPLAIN ");
+        while (matcher.find()) {
+            values.add(parameters.get(matcher.group(1)));
+            matcher.appendReplacement(jdbcSql, "?");
+        }
+        matcher.appendTail(jdbcSql);
+
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement statement = connection.prepareStatement(jdbcSql.toString())) {
+                for (int i = 0; i < values.size(); i++) {
+                    statement.setObject(i + 1, values.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    private void book(long id, long itemId, LocalDateTime bookingStart, LocalDateTime bookingEnd, String status) {
+        jdbc.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, 2, ?)",
+                id, Timestamp.valueOf(bookingStart), Timestamp.valueOf(bookingEnd), itemId, status);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentListConverterTest {
+    // configured like the application's mapper, which Hibernate hands to the converter
+    private final CommentListConverter converter = new CommentListConverter(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void roundTripsCommentsInOrder() {
+        List<CommentDto> comments = List.of(
+                comment(3L, "Отличная \"дрель\"", "Анна", LocalDateTime.of(2030, 1, 2, 10, 15, 30, 123_456_000)),
+                comment(7L, "Батарея\nсадится быстро", "Борис", LocalDateTime.of(2030, 1, 3, 8, 0)));
+
+        String json = converter.convertToDatabaseColumn(comments);
+
+        assertThat(json).startsWith("[").endsWith("]");
+        assertThat(converter.convertToEntityAttribute(json)).isEqualTo(comments);
+    }
+
+    @Test
+    void readsMissingListsAsEmptyAndMutable() {
+        assertThat(converter.convertToDatabaseColumn(null)).isEqualTo("[]");
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(List.of()))).isEmpty();
+        assertThat(converter.convertToEntityAttribute(null)).isEmpty();
+
+        List<CommentDto> comments = converter.convertToEntityAttribute("");
+        comments.add(comment(1L, "новый", "Анна", LocalDateTime.of(2030, 1, 1, 0, 0)));
+        assertThat(comments).hasSize(1);
+    }
+
+    private static CommentDto comment(Long id, String text, String authorName, LocalDateTime created) {
+        return CommentDto.builder().id(id).text(text).authorName(authorName).created(created).build();
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:item-summaries",
+        "shareit.item-summary.latest-comments=2"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemSummaryTest {
+    @Autowired
+    private ItemSummaryService itemSummaryService;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemMapper itemMapper;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@summary.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@summary.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная дрель")
+                .available(true).owner(owner).build());
+    }
+
+    @Test
+    void buildsMissingSummaryAndRebuildsExpiredOne() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking next = book(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        assertThat(itemSummaryRepository.existsById(item.getId())).isFalse();
+
+        ItemSummary built = itemSummaryService.getAll(List.of(item), now).get(item.getId());
+
+        assertThat(built.getNextBookingId()).isEqualTo(next.getId());
+        assertThat(built.getLastBookingId()).isNull();
+        assertThat(built.getValidUntil()).isEqualTo(next.getStart());
+        assertThat(itemSummaryRepository.findById(item.getId()).orElseThrow().getNextBookingId())
+                .isEqualTo(next.getId());
+
+        // written behind the summary's back, so only a rebuild can show it
+        Booking earlier = book(now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+        expire(item.getId(), now);
+
+        LocalDateTime later = now.plusSeconds(1);
+        ItemSummary rebuilt = itemSummaryService.getAll(List.of(item), later).get(item.getId());
+
+        assertThat(rebuilt.getNextBookingId()).isEqualTo(earlier.getId());
+        assertThat(rebuilt.isStale(later)).isFalse();
+        ItemSummary stored = itemSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(stored.getNextBookingId()).isEqualTo(earlier.getId());
+        assertThat(stored.getRefreshedAt()).isEqualTo(later);
+    }
+
+    @Test
+    void rebuildsWithoutStoringForStreams() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking next = book(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+
+        ItemSummary built = itemSummaryService.getAllWithoutStoring(List.of(item), now).get(item.getId());
+
+        assertThat(built.getNextBookingId()).isEqualTo(next.getId());
+        assertThat(itemSummaryRepository.existsById(item.getId())).isFalse();
+
+        // the reconciler stores it later; an expired row is rebuilt but left as it is
+        itemSummaryService.reconcile(List.of(item), now);
+        Booking earlier = book(now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+        expire(item.getId(), now);
+
+        LocalDateTime later = now.plusSeconds(1);
+        assertThat(itemSummaryService.getAllWithoutStoring(List.of(item), later).get(item.getId())
+                .getNextBookingId()).isEqualTo(earlier.getId());
+        assertThat(itemSummaryRepository.findById(item.getId()).orElseThrow().getNextBookingId())
+                .isEqualTo(next.getId());
+    }
+
+    @Test
+    void addCommentCountsEveryCommentAndKeepsTheLatestInOrder() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        itemSummaryService.getAll(List.of(item), now);
+
+        List<Long> ids = List.of(comment("первый"), comment("второй"), comment("третий"));
+
+        ItemSummary summary = itemSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getCommentCount()).isEqualTo(3);
+        assertThat(summary.getLatestComments())
+                .extracting(CommentDto::getId)
+                .containsExactly(ids.get(1), ids.get(2));
+        assertThat(summary.getLatestComments())
+                .extracting(CommentDto::getText)
+                .containsExactly("второй", "третий");
+
+        ItemResponseDto response = itemMapper.toResponseDto(item.getId(), itemService::getItem);
+        assertThat(response.getCommentCount()).isEqualTo(3L);
+        assertThat(response.getComments()).extracting(CommentDto::getId).containsExactly(ids.get(1), ids.get(2));
+    }
+
+    @Test
+    void lastAndNextBookingsMatchTheBookingQueries() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        book(now.minusHours(3), now.plusHours(3), BookingStatus.APPROVED);
+        book(now.minusHours(1), now.plusHours(5), BookingStatus.WAITING);
+        book(now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED);
+        book(now.plusDays(1), now.plusDays(3), BookingStatus.APPROVED);
+        book(now.plusDays(4), now.plusDays(5), BookingStatus.APPROVED);
+
+        ItemSummary summary = itemSummaryService.getAll(List.of(item), now).get(item.getId());
+
+        // what item views were assembled from before the summaries existed
+        ItemBookingDto last = firstById(bookingRepository.findLastBookings(List.of(item.getId()), now));
+        ItemBookingDto next = firstById(bookingRepository.findNextBookings(List.of(item.getId()), now));
+        assertThat(summary.getLastBooking()).isEqualTo(last);
+        assertThat(summary.getNextBooking()).isEqualTo(next);
+
+        ItemResponseDto response = itemMapper.toResponseDto(item.getId(), itemService::getItem);
+        assertThat(response.getLastBooking().getId()).isEqualTo(last.getId());
+        assertThat(response.getLastBooking().getBookerId()).isEqualTo(booker.getId());
+        assertThat(response.getNextBooking().getId()).isEqualTo(next.getId());
+    }
+
+    @Test
+    void reconcileRewritesAndCountsACorruptedSummary() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking next = book(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        book(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Long commentId = comment("отзыв");
+        itemSummaryService.getAll(List.of(item), now);
+
+        jdbc.update("UPDATE item_summaries SET comment_count = 42, latest_comments = '[]', "
+                + "next_booking_id = NULL, next_start = NULL WHERE item_id = ?", item.getId());
+
+        assertThat(itemSummaryService.reconcile(List.of(item), now)).isEqualTo(1);
+
+        ItemSummary repaired = itemSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(repaired.getCommentCount()).isEqualTo(1);
+        assertThat(repaired.getLatestComments()).extracting(CommentDto::getId).containsExactly(commentId);
+        assertThat(repaired.getNextBookingId()).isEqualTo(next.getId());
+        assertThat(itemSummaryService.reconcile(List.of(item), now)).isZero();
+    }
+
+    private Booking book(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).start(start).end(end).status(status).build());
+    }
+
+    private Long comment(String text) {
+        return itemService.addComment(booker.getId(), item.getId(), CommentDto.builder().text(text).build()).getId();
+    }
+
+    private void expire(Long itemId, LocalDateTime now) {
+        jdbc.update("UPDATE item_summaries SET valid_until = ? WHERE item_id = ?", now, itemId);
+    }
+
+    private static ItemBookingDto firstById(List<ItemBookingDto> bookings) {
+        return bookings.stream().min(Comparator.comparing(ItemBookingDto::getId)).orElseThrow();
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams results of a few chunks through the NDJSON endpoints. Part of the bookings are archived, so the
+ * PAST and ALL streams merge both tables across chunk boundaries.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ndjson")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NdjsonStreamerTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = NdjsonStreamer.CHUNK_SIZE + 100;
+    private static final int BOOKINGS = 2 * NdjsonStreamer.CHUNK_SIZE + 200;
+    private static final Comparator<Booking> BY_START_DESC = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+
+    private User owner;
+    private List<Item> items;
+    private List<Booking> bookings;
+
+    @BeforeAll
+    void fillTables() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@ndjson.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@ndjson.ru").build());
+        List<Item> newItems = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            newItems.add(Item.builder().name("Дрель " + i).description("Ударная дрель")
+                    .available(true).owner(owner).build());
+        }
+        items = itemRepository.saveAll(newItems);
+
+        // pairs share their start; starts are half an hour off the current time, so no booking ends while the
+        // test runs
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(20).plusMinutes(30);
+        List<Booking> newBookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusHours(i / 2);
+            newBookings.add(Booking.builder().item(items.get(i % 3)).booker(booker)
+                    .start(start).end(start.plusHours(1)).status(BookingStatus.APPROVED).build());
+        }
+        bookings = bookingRepository.saveAll(newBookings);
+
+        LocalDateTime now = LocalDateTime.now();
+        int archived = 0;
+        int count;
+        do {
+            count = bookingArchiver.archive(now.minusDays(10), now);
+            archived += count;
+        } while (count > 0);
+        assertThat(archived).isGreaterThan(NdjsonStreamer.CHUNK_SIZE / 2);
+    }
+
+    @Test
+    void streamsAllBookingsOfTheOwnerFromBothTables() throws Exception {
+        List<BookingDto> streamed = streamBookings("ALL");
+
+        assertThat(streamed).hasSize(BOOKINGS);
+        assertThat(streamed).extracting(BookingDto::getId)
+                .containsExactlyElementsOf(bookings.stream().sorted(BY_START_DESC).map(Booking::getId).toList());
+        assertThat(streamed).allSatisfy(booking -> {
+            assertThat(booking.getStatus()).isEqualTo(BookingStatus.APPROVED);
+            assertThat(booking.getBooker().getName()).isEqualTo("booker");
+        });
+    }
+
+    @Test
+    void streamsPastBookingsOfTheOwnerFromBothTables() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expected = bookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now))
+                .sorted(BY_START_DESC)
+                .map(Booking::getId)
+                .toList();
+
+        List<BookingDto> streamed = streamBookings("PAST");
+
+        assertThat(expected).hasSizeGreaterThan(NdjsonStreamer.CHUNK_SIZE);
+        assertThat(streamed).extracting(BookingDto::getId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void streamsItemsOfTheOwnerInIdOrder() throws Exception {
+        List<String> lines = stream(get("/items").header(USER_ID_HEADER, owner.getId()));
+
+        assertThat(lines).hasSize(ITEMS);
+        List<ItemResponseDto> streamed = new ArrayList<>();
+        for (String line : lines) {
+            streamed.add(objectMapper.readValue(line, ItemResponseDto.class));
+        }
+        assertThat(streamed).extracting(ItemResponseDto::getId)
+                .containsExactlyElementsOf(items.stream().map(Item::getId).sorted().toList());
+        assertThat(streamed.get(0).getNextBooking()).isNotNull();
+        assertThat(streamed.get(ITEMS - 1).getName()).isEqualTo("Дрель " + (ITEMS - 1));
+        // summaries are rebuilt on the stream's connection and left to the reconciler to store
+        assertThat(itemSummaryRepository.count()).isZero();
+    }
+
+    private List<BookingDto> streamBookings(String state) throws Exception {
+        List<BookingDto> streamed = new ArrayList<>();
+        for (String line : stream(get("/bookings/owner").header(USER_ID_HEADER, owner.getId())
+                .param("state", state))) {
+            streamed.add(objectMapper.readValue(line, BookingDto.class));
+        }
+        return streamed;
+    }
+
+    /**
+     * Lines of an NDJSON response, which is written on the async thread after the handler returns.
+     */
+    private List<String> stream(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mvc.perform(builder.accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("\n");
+        return List.of(body.split("\n"));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.rate-limit.enabled=true",
+        "shareit.rate-limit.groups.search.capacity=2",
+        "shareit.rate-limit.groups.search.refill-per-second=0.1"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class RateLimitFilterTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void rejectsRequestsBeyondTheBurstWithRetryAfter() throws Exception {
+        mvc.perform(get("/items/search").param("text", "drill").header(USER_ID_HEADER, 101))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "drill").header(USER_ID_HEADER, 101))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "drill").header(USER_ID_HEADER, 101))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+    }
+
+    @Test
+    void limitsEachUserSeparately() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/items/search").param("text", "drill").header(USER_ID_HEADER, 102))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/items/search").param("text", "drill").header(USER_ID_HEADER, 103))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsGroupsThatNeverRefill() {
+        assertThatThrownBy(() -> new RateLimitProperties.Group(List.of("/items"), 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimitProperties.Group(List.of("/items"), 10, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimitProperties.Group(List.of("/items"), 0, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}